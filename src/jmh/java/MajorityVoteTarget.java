@@ -0,0 +1,23 @@
+import java.util.Random;
+
+import benchmarks.MajorityTarget;
+
+public class MajorityVoteTarget implements MajorityTarget {
+
+    private final BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(false);
+
+    @Override
+    public int[] generate(int size, String scenario, Random random) {
+        return BenchmarkRunner.generateScenarioArray(size, scenario, random);
+    }
+
+    @Override
+    public int findMajorityElement(int[] nums) {
+        return bm.findMajorityElement(nums);
+    }
+
+    @Override
+    public Object findMajorityElementDetailed(int[] nums) {
+        return bm.findMajorityElementDetailed(nums);
+    }
+}
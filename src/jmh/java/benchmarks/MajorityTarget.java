@@ -0,0 +1,26 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Bridge to the algorithm classes. JMH refuses benchmarks in the default
+ * package and named packages cannot import default-package classes, so the
+ * implementation ({@code MajorityVoteTarget}) lives in the default package
+ * and is loaded by name.
+ */
+public interface MajorityTarget {
+
+    int[] generate(int size, String scenario, Random random);
+
+    int findMajorityElement(int[] nums);
+
+    Object findMajorityElementDetailed(int[] nums);
+
+    static MajorityTarget load() {
+        try {
+            return (MajorityTarget) Class.forName("MajorityVoteTarget").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load MajorityVoteTarget", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH counterpart of BenchmarkRunner --benchmark: same size and scenario
+ * matrix, metrics disabled, results sunk into a Blackhole, forked JVMs.
+ * Each call is measured twice, as throughput in ops/s and as average time in
+ * ns/op; the modes sit on separate methods so each gets its own time unit.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class MajorityVoteBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"random_with_majority", "random_no_majority", "sorted_with_majority",
+            "zipf", "adversarial_with_majority", "adversarial_no_majority", "alternating", "clustered"})
+    public String scenario;
+
+    private int[] array;
+    private MajorityTarget target;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = MajorityTarget.load();
+        array = target.generate(size, scenario, new Random(42));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void findMajorityElement(Blackhole blackhole) {
+        blackhole.consume(target.findMajorityElement(array));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void findMajorityElementTime(Blackhole blackhole) {
+        blackhole.consume(target.findMajorityElement(array));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void findMajorityElementDetailed(Blackhole blackhole) {
+        blackhole.consume(target.findMajorityElementDetailed(array));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void findMajorityElementDetailedTime(Blackhole blackhole) {
+        blackhole.consume(target.findMajorityElementDetailed(array));
+    }
+}
@@ -0,0 +1,212 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Picks a {@link MajorityStrategy} per call from cheap statistics of an
+ * evenly spaced sample: apparently sorted input goes to the sorted strategy,
+ * a small sampled value range to counting, and otherwise the array size
+ * decides between sequential and parallel. Shape-specific strategies verify
+ * their precondition and fall back to the size-based choice. Thresholds come
+ * from a {@link Profile}, either from {@link #calibrate()} or loaded from a
+ * file. Instances are not thread-safe.
+ */
+public class AdaptiveMajorityVote {
+
+    static final int SAMPLE_SIZE = 64;
+
+    private final Profile profile;
+    private final MajorityStrategy sequential = new MajorityStrategy.Sequential();
+    private final MajorityStrategy parallel = new MajorityStrategy.Parallel();
+    private final MajorityStrategy counting;
+    private final MajorityStrategy sorted = new MajorityStrategy.Sorted();
+    private MajorityStrategy lastStrategy;
+
+    public AdaptiveMajorityVote() {
+        this(Profile.DEFAULT);
+    }
+
+    public AdaptiveMajorityVote(Profile profile) {
+        this.profile = profile;
+        this.counting = new MajorityStrategy.Counting(profile.countingMaxRange);
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Strategy that ran the most recent call, after any fallback.
+     */
+    public MajorityStrategy getLastStrategy() {
+        return lastStrategy;
+    }
+
+    public int findMajorityElement(int[] nums) {
+        BoyerMooreMajorityVote.MajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) {
+        MajorityStrategy shaped = select(nums);
+        if (shaped != null) {
+            BoyerMooreMajorityVote.MajorityResult result = shaped.findMajorityElementDetailed(nums);
+            if (result != null) {
+                lastStrategy = shaped;
+                return result;
+            }
+        }
+
+        lastStrategy = bySize(nums);
+        return lastStrategy.findMajorityElementDetailed(nums);
+    }
+
+    /**
+     * Shape-specific strategy suggested by the sample, or null for a size-based choice.
+     */
+    MajorityStrategy select(int[] nums) {
+        if (nums == null || nums.length < profile.shapeMinSize) {
+            return null;
+        }
+
+        int n = nums.length;
+        int step = Math.max(1, n / SAMPLE_SIZE);
+        int previous = nums[0];
+        int min = previous;
+        int max = previous;
+        boolean nonDecreasing = true;
+        for (int i = step; i < n; i += step) {
+            int value = nums[i];
+            nonDecreasing &= value >= previous;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            previous = value;
+        }
+        nonDecreasing &= nums[n - 1] >= previous;
+
+        if (nonDecreasing) {
+            return sorted;
+        }
+        if ((long) max - min < profile.countingMaxRange / 2) {
+            return counting;
+        }
+        return null;
+    }
+
+    private MajorityStrategy bySize(int[] nums) {
+        return nums != null && nums.length >= profile.parallelThreshold ? parallel : sequential;
+    }
+
+    /**
+     * Measures the sequential/parallel crossover on this machine with a short
+     * micro-benchmark (well under a second) and returns the resulting profile.
+     * Only parallelThreshold is measured; countingMaxRange and shapeMinSize
+     * are copied from {@link Profile#DEFAULT}.
+     */
+    public static Profile calibrate() {
+        MajorityStrategy seq = new MajorityStrategy.Sequential();
+        MajorityStrategy par = new MajorityStrategy.Parallel();
+        SplittableRandom random = new SplittableRandom(42);
+        int parallelThreshold = Integer.MAX_VALUE;
+
+        int[] warmup = new int[BoyerMooreMajorityVote.PARALLEL_THRESHOLD];
+        for (int i = 0; i < warmup.length; i++) {
+            warmup[i] = random.nextInt(4);
+        }
+        for (int i = 0; i < 50; i++) {
+            seq.findMajorityElementDetailed(warmup);
+            par.findMajorityElementDetailed(warmup);
+        }
+
+        for (int size = BoyerMooreMajorityVote.PARALLEL_THRESHOLD; size <= 1 << 22; size *= 4) {
+            int[] nums = new int[size];
+            for (int i = 0; i < size; i++) {
+                nums[i] = random.nextInt(4) == 0 ? random.nextInt() : 7;
+            }
+            long seqTime = timeBest(seq, nums);
+            long parTime = timeBest(par, nums);
+            if (parTime < seqTime * 0.8) {
+                parallelThreshold = size;
+                break;
+            }
+        }
+        return new Profile(parallelThreshold, Profile.DEFAULT.countingMaxRange, Profile.DEFAULT.shapeMinSize);
+    }
+
+    private static long timeBest(MajorityStrategy strategy, int[] nums) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            strategy.findMajorityElementDetailed(nums);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    /**
+     * Thresholds used by the selector, storable as a properties file.
+     */
+    public static final class Profile {
+        public static final Profile DEFAULT = new Profile(1 << 20, 1 << 16, 1 << 10);
+
+        public final int parallelThreshold;
+        public final int countingMaxRange;
+        public final int shapeMinSize;
+
+        public Profile(int parallelThreshold, int countingMaxRange, int shapeMinSize) {
+            if (parallelThreshold < 1 || countingMaxRange < 1 || shapeMinSize < 2) {
+                throw new IllegalArgumentException("Invalid profile thresholds");
+            }
+            this.parallelThreshold = parallelThreshold;
+            this.countingMaxRange = countingMaxRange;
+            this.shapeMinSize = shapeMinSize;
+        }
+
+        public static Profile load(Path file) throws IOException {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            try {
+                return new Profile(
+                        Integer.parseInt(properties.getProperty("parallelThreshold")),
+                        Integer.parseInt(properties.getProperty("countingMaxRange")),
+                        Integer.parseInt(properties.getProperty("shapeMinSize")));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid strategy profile " + file + ": " + e.getMessage(), e);
+            }
+        }
+
+        public void save(Path file) throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("parallelThreshold", String.valueOf(parallelThreshold));
+            properties.setProperty("countingMaxRange", String.valueOf(countingMaxRange));
+            properties.setProperty("shapeMinSize", String.valueOf(shapeMinSize));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "AdaptiveMajorityVote profile");
+            }
+        }
+
+        /**
+         * Loads the profile from file if it exists; otherwise calibrates and saves it there.
+         */
+        public static Profile loadOrCalibrate(Path file) throws IOException {
+            if (Files.exists(file)) {
+                return load(file);
+            }
+            Profile profile = calibrate();
+            profile.save(file);
+            return profile;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Profile(parallelThreshold=%d, countingMaxRange=%d, shapeMinSize=%d)",
+                    parallelThreshold, countingMaxRange, shapeMinSize);
+        }
+    }
+}
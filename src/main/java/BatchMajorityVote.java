@@ -0,0 +1,115 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Votes over many arrays at once on a work-stealing pool. Small arrays are
+ * packed into groups of about GROUP_BUDGET elements so one task handles many
+ * of them; arrays of PARALLEL_THRESHOLD elements or more get their own task
+ * and are themselves split with the fork-join majority vote.
+ */
+public class BatchMajorityVote {
+
+    static final int GROUP_BUDGET = 1 << 15;
+
+    private final ForkJoinPool pool;
+
+    // Without metrics the vote keeps no per-call state, so one instance is
+    // shared by every worker thread.
+    private final BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(false);
+
+    public BatchMajorityVote() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchMajorityVote(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult[] findMajorityElements(List<int[]> arrays) {
+        return findMajorityElements(arrays.toArray(new int[0][]));
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult[] findMajorityElements(int[][] arrays) {
+        BoyerMooreMajorityVote.MajorityResult[] results = new BoyerMooreMajorityVote.MajorityResult[arrays.length];
+        List<RecursiveAction> tasks = new ArrayList<>();
+
+        int groupStart = 0;
+        long groupElements = 0;
+        for (int i = 0; i < arrays.length; i++) {
+            int length = arrays[i] == null ? 0 : arrays[i].length;
+
+            if (length >= BoyerMooreMajorityVote.PARALLEL_THRESHOLD) {
+                if (groupStart < i) {
+                    tasks.add(new GroupTask(arrays, results, groupStart, i));
+                }
+                tasks.add(new LargeTask(arrays, results, i));
+                groupStart = i + 1;
+                groupElements = 0;
+                continue;
+            }
+
+            groupElements += length + 1;
+            if (groupElements >= GROUP_BUDGET) {
+                tasks.add(new GroupTask(arrays, results, groupStart, i + 1));
+                groupStart = i + 1;
+                groupElements = 0;
+            }
+        }
+        if (groupStart < arrays.length) {
+            tasks.add(new GroupTask(arrays, results, groupStart, arrays.length));
+        }
+
+        if (tasks.size() == 1) {
+            tasks.get(0).invoke();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+        }
+        return results;
+    }
+
+    private final class GroupTask extends RecursiveAction {
+        private final int[][] arrays;
+        private final BoyerMooreMajorityVote.MajorityResult[] results;
+        private final int from;
+        private final int to;
+
+        GroupTask(int[][] arrays, BoyerMooreMajorityVote.MajorityResult[] results, int from, int to) {
+            this.arrays = arrays;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                results[i] = bm.findMajorityElementDetailed(arrays[i]);
+            }
+        }
+    }
+
+    private final class LargeTask extends RecursiveAction {
+        private final int[][] arrays;
+        private final BoyerMooreMajorityVote.MajorityResult[] results;
+        private final int index;
+
+        LargeTask(int[][] arrays, BoyerMooreMajorityVote.MajorityResult[] results, int index) {
+            this.arrays = arrays;
+            this.results = results;
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            results[index] = bm.findMajorityElementDetailedParallel(arrays[index], pool);
+        }
+    }
+}
@@ -1,13 +1,83 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 public class BenchmarkRunner {
 
+    static final String[] SCENARIOS = {
+            "random_with_majority", "random_no_majority", "sorted_with_majority",
+            "zipf", "adversarial_with_majority", "adversarial_no_majority", "alternating", "clustered"
+    };
+
+    private static final String PROFILE_FILE = "strategy-profile.properties";
+
+    private static final Path DATASET_DIR = Path.of(System.getProperty("majority.datasets", "datasets"));
+
     public static void main(String[] args) {
         if (args.length > 0 && args[0].equals("--benchmark")) {
             runComprehensiveBenchmark();
+        } else if (args.length > 0 && args[0].equals("--vector")) {
+            runVectorBenchmark();
+        } else if (args.length > 0 && args[0].equals("--mmap")) {
+            long count = args.length > 1 ? Long.parseLong(args[1]) : 64_000_000L;
+            String distribution = args.length > 2 ? args[2] : "uniform";
+            runMappedFileBenchmark(count, distribution);
+        } else if (args.length > 0 && args[0].equals("--heavy-hitters")) {
+            runHeavyHittersBenchmark();
+        } else if (args.length > 0 && args[0].equals("--concurrent")) {
+            runConcurrentBenchmark();
+        } else if (args.length > 0 && args[0].equals("--range")) {
+            runRangeQueryBenchmark();
+        } else if (args.length > 0 && args[0].equals("--batch")) {
+            runBatchBenchmark();
+        } else if (args.length > 0 && args[0].equals("--grouped")) {
+            int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+            int groups = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+            runGroupedBenchmark(pairs, groups);
+        } else if (args.length > 0 && args[0].equals("--weighted")) {
+            runWeightedBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            runVoteService(args.length > 1 ? args[1] : "7471");
+        } else if (args.length > 0 && args[0].equals("--service-load")) {
+            int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+            int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+            int size = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+            runServiceLoad(clients, requests, size, args.length > 4 ? args[4] : null);
+        } else if (args.length > 0 && args[0].equals("--offheap")) {
+            runOffHeapBenchmark();
+        } else if (args.length > 0 && args[0].equals("--parse")) {
+            runTextIngestBenchmark(args.length > 1 ? Path.of(args[1]) : null);
+        } else if (args.length > 0 && args[0].equals("--calibrate")) {
+            runCalibration(Path.of(args.length > 1 ? args[1] : PROFILE_FILE));
+        } else if (args.length > 0 && args[0].equals("--shards")) {
+            int shards = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+            long perShard = args.length > 2 ? Long.parseLong(args[2]) : 10_000_000L;
+            runShardedBenchmark(shards, perShard);
+        } else if (args.length > 0 && args[0].equals("--jfr")) {
+            runFlightRecorderBenchmark(Path.of(args.length > 1 ? args[1] : "majority-vote.jfr"));
+        } else if (args.length > 0 && args[0].equals("--shard-worker")) {
+            runShardWorker(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[3]));
         } else {
             runInteractiveMode();
         }
@@ -46,7 +116,8 @@ public class BenchmarkRunner {
     private static void runComprehensiveBenchmark() {
         try {
             FileWriter csvWriter = new FileWriter("benchmark_results.csv");
-            csvWriter.write("input_size,scenario,time_ns,comparisons,array_access,assignments\n");
+            csvWriter.write("input_size,scenario,time_ns,comparisons,array_access,assignments,"
+                    + "p50_ns,p90_ns,p99_ns,p999_ns,max_ns,alloc_bytes,detailed_alloc_bytes,gc_count,gc_time_ms,strategy\n");
 
             int[] sizes = {100, 1000, 10000, 100000, 1000000};
             Random random = new Random(42);
@@ -54,9 +125,9 @@ public class BenchmarkRunner {
             for (int size : sizes) {
                 System.out.printf("Benchmarking size: %,d%n", size);
 
-                benchmarkScenario(size, "random_with_majority", true, false, random, csvWriter);
-                benchmarkScenario(size, "random_no_majority", false, false, random, csvWriter);
-                benchmarkScenario(size, "sorted_with_majority", true, true, random, csvWriter);
+                for (String scenario : SCENARIOS) {
+                    benchmarkScenario(size, scenario, random, csvWriter);
+                }
             }
 
             csvWriter.close();
@@ -68,37 +139,125 @@ public class BenchmarkRunner {
     }
 
     private static void benchmarkScenario(int size, String scenario,
-                                          boolean hasMajority, boolean isSorted,
                                           Random random, FileWriter csvWriter) throws IOException {
-        int[] array = generateTestArray(size, hasMajority, isSorted, random);
+        int[] array = generateScenarioArray(size, scenario, random);
         BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(true);
+        bm.getPerformanceTracker().setAllocationTracking(true);
 
         for (int i = 0; i < 10; i++) {
             bm.findMajorityElement(array);
+            bm.findMajorityElementDetailed(array);
             bm.resetMetrics();
         }
+        bm.getPerformanceTracker().resetLatencies();
 
         long totalTime = 0;
+        long allocated = 0;
+        long gcCount = 0;
+        long gcTimeMs = 0;
         int runs = 100;
 
         for (int i = 0; i < runs; i++) {
             bm.findMajorityElement(array);
             PerformanceTracker metrics = bm.getPerformanceTracker();
             totalTime += metrics.getElapsedTime();
+            allocated += metrics.getMetric("allocatedBytes");
+            gcCount += metrics.getMetric("gcCount");
+            gcTimeMs += metrics.getMetric("gcTimeMs");
             bm.resetMetrics();
         }
 
-        bm.findMajorityElement(array);
+        AdaptiveMajorityVote adaptive = new AdaptiveMajorityVote(loadProfile());
+        adaptive.findMajorityElementDetailed(array);
+        String strategy = adaptive.getLastStrategy().name();
+
         PerformanceTracker metrics = bm.getPerformanceTracker();
+        LatencyHistogram latencies = metrics.getLatencyHistogram();
+        long p50 = latencies.getPercentile(50);
+        long p90 = latencies.getPercentile(90);
+        long p99 = latencies.getPercentile(99);
+        long p999 = latencies.getPercentile(99.9);
+        long max = latencies.getMax();
+
+        // The detailed path builds a MajorityResult; measure it separately so
+        // its allocation does not hide behind the plain call's zero.
+        long detailedAllocated = 0;
+        for (int i = 0; i < runs; i++) {
+            long before = PerformanceTracker.currentThreadAllocatedBytes();
+            bm.findMajorityElementDetailed(array);
+            detailedAllocated += PerformanceTracker.currentThreadAllocatedBytes() - before;
+        }
+        bm.resetMetrics();
 
-        String line = String.format("%,d,%s,%,d,%d,%d,%d%n",
+        bm.findMajorityElement(array);
+
+        String line = String.format("%,d,%s,%,d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d,%s%n",
                 size, scenario, totalTime / runs,
                 metrics.getMetric("comparisons"),
                 metrics.getMetric("arrayAccess"),
-                metrics.getMetric("assignments"));
+                metrics.getMetric("assignments"),
+                p50, p90, p99, p999, max,
+                allocated / runs, detailedAllocated / runs, gcCount, gcTimeMs, strategy);
 
         csvWriter.write(line);
-        System.out.printf("  %s: avg time = %,d ns%n", scenario, totalTime / runs);
+        System.out.printf("  %s: avg time = %,d ns, p50 = %,d ns, p99 = %,d ns, max = %,d ns, "
+                        + "alloc = %,d B/call, detailed alloc = %,d B/call, gc = %d (%d ms), adaptive strategy = %s%n",
+                scenario, totalTime / runs, p50, p99, max,
+                allocated / runs, detailedAllocated / runs, gcCount, gcTimeMs, strategy);
+    }
+
+    private static AdaptiveMajorityVote.Profile loadProfile() {
+        Path file = Path.of(System.getProperty("majority.profile", PROFILE_FILE));
+        if (Files.exists(file)) {
+            try {
+                return AdaptiveMajorityVote.Profile.load(file);
+            } catch (IOException e) {
+                System.err.println("Ignoring strategy profile " + file + ": " + e.getMessage());
+            }
+        }
+        return AdaptiveMajorityVote.Profile.DEFAULT;
+    }
+
+    private static void runCalibration(Path file) {
+        System.out.println("=== Calibrating Adaptive Strategy Selection ===");
+        long start = System.nanoTime();
+        AdaptiveMajorityVote.Profile profile = AdaptiveMajorityVote.calibrate();
+        System.out.printf("%s (measured in %,d ms)%n", profile, (System.nanoTime() - start) / 1_000_000);
+
+        try {
+            profile.save(file);
+            System.out.println("Profile saved to " + file);
+        } catch (IOException e) {
+            System.err.println("Error saving strategy profile: " + e.getMessage());
+        }
+    }
+
+    static int[] generateScenarioArray(int size, String scenario, Random random) {
+        switch (scenario) {
+            case "random_with_majority":
+                return generateTestArray(size, true, false, random);
+            case "random_no_majority":
+                return generateTestArray(size, false, false, random);
+            case "sorted_with_majority":
+                return generateTestArray(size, true, true, random);
+            case "zipf":
+                return new DatasetGenerator(DatasetGenerator.Distribution.ZIPF,
+                        size, random.nextLong(), 1000, true).toArray();
+            case "adversarial_with_majority":
+                return new DatasetGenerator(DatasetGenerator.Distribution.ADVERSARIAL,
+                        size, random.nextLong(), 100, true).toArray();
+            case "adversarial_no_majority":
+                return new DatasetGenerator(DatasetGenerator.Distribution.ADVERSARIAL,
+                        size, random.nextLong(), 100, false).toArray();
+            case "alternating":
+                return new DatasetGenerator(DatasetGenerator.Distribution.ALTERNATING,
+                        size, random.nextLong(), 100, true).toArray();
+            case "clustered":
+                return new DatasetGenerator(DatasetGenerator.Distribution.CLUSTERED,
+                        size, random.nextLong(), 100, true).toArray();
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
     }
 
     private static int[] generateTestArray(int size, boolean hasMajority, boolean isSorted, Random random) {
@@ -163,4 +322,770 @@ public class BenchmarkRunner {
                     metrics.getMetric("assignments"));
         }
     }
-}
\ No newline at end of file
+
+    private static void runFlightRecorderBenchmark(Path output) {
+        System.out.println("=== Flight Recorder Phase Breakdown ===");
+        int size = 1_000_000;
+        int runs = 50;
+        Random random = new Random(42);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+
+        try (Recording whole = newPhaseRecording()) {
+            whole.setToDisk(true);
+            whole.setDestination(output);
+            whole.start();
+
+            for (String scenario : SCENARIOS) {
+                int[] array = generateScenarioArray(size, scenario, random);
+                for (int i = 0; i < 10; i++) {
+                    bm.findMajorityElement(array);
+                    bm.findMajorityElementDetailed(array);
+                }
+
+                Path dump = Files.createTempFile("majority-" + scenario, ".jfr");
+                try (Recording recording = newPhaseRecording()) {
+                    recording.start();
+                    for (int i = 0; i < runs; i++) {
+                        bm.findMajorityElement(array);
+                        bm.findMajorityElementDetailed(array);
+                    }
+                    recording.stop();
+                    recording.dump(dump);
+                    printPhaseSummary(scenario, size, RecordingFile.readAllEvents(dump));
+                } finally {
+                    Files.deleteIfExists(dump);
+                }
+            }
+
+            whole.stop();
+            System.out.println("Full recording written to " + output);
+        } catch (IOException e) {
+            System.err.println("Error recording phase events: " + e.getMessage());
+        }
+    }
+
+    private static Recording newPhaseRecording() {
+        Recording recording = new Recording();
+        recording.setName("majority-vote");
+        recording.enable(MajorityVoteEvents.CandidateEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(MajorityVoteEvents.VerifyEvent.class).withThreshold(Duration.ZERO);
+        recording.enable(MajorityVoteEvents.FrequencyEvent.class).withThreshold(Duration.ZERO);
+        return recording;
+    }
+
+    private static void printPhaseSummary(String scenario, int size, List<RecordedEvent> events) {
+        Map<String, long[]> phases = new HashMap<>();
+        long stoppedAt = 0;
+        long verifies = 0;
+        for (RecordedEvent event : events) {
+            long[] totals = phases.computeIfAbsent(event.getEventType().getLabel(), name -> new long[2]);
+            totals[0]++;
+            totals[1] += event.getDuration().toNanos();
+            if (event.hasField("stoppedAt")) {
+                stoppedAt += event.getInt("stoppedAt");
+                verifies++;
+            }
+        }
+
+        System.out.printf("  %s:%n", scenario);
+        for (String phase : new String[]{"Find Candidate", "Verify Candidate", "Count Frequency"}) {
+            long[] totals = phases.getOrDefault(phase, new long[2]);
+            System.out.printf("    %-17s %4d events, avg %,12d ns%n",
+                    phase, totals[0], totals[0] == 0 ? 0 : totals[1] / totals[0]);
+        }
+        if (verifies > 0) {
+            System.out.printf("    verify stopped after %.1f%% of the input on average%n",
+                    100.0 * stoppedAt / verifies / size);
+        }
+    }
+
+    private static void runVectorBenchmark() {
+        System.out.println("=== Frequency Counting: Vector API vs Scalar ===");
+        System.out.println("Vector API available: " + VectorizedFrequency.isVectorAvailable());
+
+        int[] sizes = {1000, 100000, 1000000, 10000000};
+        Random random = new Random(42);
+
+        System.out.printf("%-12s | %-14s | %-14s | %-8s%n", "Size", "Scalar(ns)", "Vector(ns)", "Speedup");
+        System.out.println("-------------|----------------|----------------|---------");
+
+        for (int size : sizes) {
+            int[] array = generateTestArray(size, true, false, random);
+            int candidate = new BoyerMooreMajorityVote().findMajorityElement(array);
+            int runs = Math.max(10, 50000000 / size);
+
+            long sink = 0;
+            for (int i = 0; i < runs; i++) {
+                sink += VectorizedFrequency.countScalar(array, 0, size, candidate);
+                sink += VectorizedFrequency.count(array, 0, size, candidate);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += VectorizedFrequency.countScalar(array, 0, size, candidate);
+            }
+            long scalarTime = (System.nanoTime() - start) / runs;
+
+            start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += VectorizedFrequency.count(array, 0, size, candidate);
+            }
+            long vectorTime = (System.nanoTime() - start) / runs;
+
+            System.out.printf("%,12d | %,14d | %,14d | %7.2fx%n",
+                    size, scalarTime, vectorTime, (double) scalarTime / Math.max(1, vectorTime));
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    private static void runMappedFileBenchmark(long count, String distribution) {
+        DatasetGenerator.Distribution parsed = null;
+        for (DatasetGenerator.Distribution candidate : DatasetGenerator.Distribution.values()) {
+            if (candidate.name().equalsIgnoreCase(distribution)) {
+                parsed = candidate;
+            }
+        }
+        if (parsed == null) {
+            System.err.println("Unknown distribution '" + distribution + "'; expected one of "
+                    + Arrays.toString(DatasetGenerator.Distribution.values()).toLowerCase());
+            return;
+        }
+
+        System.out.printf("=== Memory-Mapped File Majority (%,d ints, %s) ===%n", count, distribution);
+
+        try {
+            DatasetGenerator generator = new DatasetGenerator(parsed, count, 42, 100, true);
+
+            long start = System.nanoTime();
+            Path file = generator.toFile(DATASET_DIR);
+            System.out.printf("Dataset %s ready in %,d ms%n", file, (System.nanoTime() - start) / 1_000_000);
+
+            double gigabytes = count * (double) Integer.BYTES / 1e9;
+            MappedFileMajority.findMajority(file, ByteOrder.LITTLE_ENDIAN);
+
+            start = System.nanoTime();
+            BoyerMooreMajorityVote.Verifier result = MappedFileMajority.findMajority(file, ByteOrder.LITTLE_ENDIAN);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("Candidate: %d, frequency: %,d/%,d, majority: %b%n",
+                    result.getCandidate(), result.getFrequency(), result.getSeen(), result.isMajority());
+            System.out.printf("Two passes over %.2f GB in %,d ms: %.2f GB/s%n",
+                    gigabytes, elapsed / 1_000_000, 2 * gigabytes / (elapsed / 1e9));
+        } catch (IOException e) {
+            System.err.println("Error running mapped file benchmark: " + e.getMessage());
+        }
+    }
+
+    private static void runHeavyHittersBenchmark() {
+        System.out.println("=== Heavy Hitters: Misra-Gries vs HashMap Count ===");
+
+        int size = 1_000_000;
+        int[] ks = {3, 10, 100};
+        Random random = new Random(42);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            // A few hot values over a long uniform tail.
+            array[i] = random.nextInt(4) == 0 ? random.nextInt(2) : random.nextInt(size);
+        }
+
+        System.out.printf("%-6s | %-14s | %-14s | %-6s%n", "k", "MisraGries(ns)", "HashMap(ns)", "Found");
+        System.out.println("-------|----------------|----------------|-------");
+
+        for (int k : ks) {
+            MisraGriesHeavyHitters mg = new MisraGriesHeavyHitters(k);
+            int runs = 20;
+            long sink = 0;
+
+            for (int i = 0; i < 5; i++) {
+                sink += mg.findHeavyHitters(array).elements.length;
+                sink += naiveHeavyHitters(array, k);
+            }
+
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < runs; i++) {
+                found = mg.findHeavyHitters(array).elements.length;
+            }
+            long mgTime = (System.nanoTime() - start) / runs;
+
+            start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += naiveHeavyHitters(array, k);
+            }
+            long naiveTime = (System.nanoTime() - start) / runs;
+
+            System.out.printf("%6d | %,14d | %,14d | %6d%n", k, mgTime, naiveTime, found);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    private static int naiveHeavyHitters(int[] array, int k) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int value : array) {
+            counts.merge(value, 1, Integer::sum);
+        }
+        int found = 0;
+        for (int count : counts.values()) {
+            if (count > array.length / k) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private static void runConcurrentBenchmark() {
+        System.out.println("=== Concurrent Accumulator Throughput ===");
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int perThread = 20_000_000;
+        int chunk = 4096;
+        int[] array = generateTestArray(perThread, true, false, new Random(42));
+
+        System.out.printf("%-8s | %-14s | %-16s%n", "Threads", "Time(ms)", "Values/s");
+        System.out.println("---------|----------------|-----------------");
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ConcurrentMajorityAccumulator accumulator = new ConcurrentMajorityAccumulator();
+            Thread[] workers = new Thread[threads];
+
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i += chunk) {
+                        accumulator.accept(array, i, Math.min(chunk, perThread - i));
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%8d | %,14d | %,16.0f  (candidate %d)%n", threads, elapsed / 1_000_000,
+                    (double) threads * perThread / (elapsed / 1e9), accumulator.currentCandidate());
+        }
+    }
+
+    private static void runRangeQueryBenchmark() {
+        System.out.println("=== Range Majority: Index vs Copy-and-Scan ===");
+
+        int size = 1_000_000;
+        int queries = 2_000;
+        Random random = new Random(42);
+        int[] array = generateTestArray(size, true, false, random);
+        int[] lefts = new int[queries];
+        int[] rights = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            lefts[i] = random.nextInt(size);
+            rights[i] = lefts[i] + random.nextInt(size - lefts[i]);
+        }
+
+        long start = System.nanoTime();
+        RangeMajorityIndex index = new RangeMajorityIndex(array);
+        long buildTime = System.nanoTime() - start;
+
+        int[] out = new int[queries];
+        index.majorities(lefts, rights, out);
+        start = System.nanoTime();
+        index.majorities(lefts, rights, out);
+        long indexTime = System.nanoTime() - start;
+
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        long sink = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            sink += bm.findMajorityElement(Arrays.copyOfRange(array, lefts[i], rights[i] + 1));
+        }
+        long naiveTime = System.nanoTime() - start;
+
+        System.out.printf("Index build: %,d ms%n", buildTime / 1_000_000);
+        System.out.printf("Index:         %,12d ns/query%n", indexTime / queries);
+        System.out.printf("Copy-and-scan: %,12d ns/query%n", naiveTime / queries);
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void runBatchBenchmark() {
+        System.out.println("=== Batch Vote vs Per-Call Loop ===");
+
+        Random random = new Random(42);
+        int[][] arrays = new int[20_000][];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = generateTestArray(16 + random.nextInt(2000), random.nextBoolean(), false, random);
+        }
+
+        BatchMajorityVote batch = new BatchMajorityVote();
+        long sink = 0;
+        for (int i = 0; i < 5; i++) {
+            sink += batch.findMajorityElements(arrays).length;
+            for (int[] array : arrays) {
+                sink += new BoyerMooreMajorityVote().findMajorityElementDetailed(array).frequency;
+            }
+        }
+
+        int runs = 10;
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            for (int[] array : arrays) {
+                sink += new BoyerMooreMajorityVote().findMajorityElementDetailed(array).frequency;
+            }
+        }
+        long loopTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += batch.findMajorityElements(arrays).length;
+        }
+        long batchTime = System.nanoTime() - start;
+
+        double total = (double) arrays.length * runs;
+        System.out.printf("Per-call loop: %,14.0f arrays/s%n", total / (loopTime / 1e9));
+        System.out.printf("Batch:         %,14.0f arrays/s (%d workers)%n",
+                total / (batchTime / 1e9), java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void runShardedBenchmark(int shards, long perShard) {
+        System.out.printf("=== Sharded Vote: %d worker JVMs x %,d ints ===%n", shards, perShard);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> workers = new ArrayList<>();
+
+        try {
+            List<DataInputStream> ins = new ArrayList<>();
+            List<DataOutputStream> outs = new ArrayList<>();
+            for (int i = 0; i < shards; i++) {
+                Process worker = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        "BenchmarkRunner", "--shard-worker", String.valueOf(i), String.valueOf(shards),
+                        String.valueOf(perShard))
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                workers.add(worker);
+                ins.add(new DataInputStream(new BufferedInputStream(worker.getInputStream())));
+                outs.add(new DataOutputStream(new BufferedOutputStream(worker.getOutputStream())));
+            }
+
+            long start = System.nanoTime();
+            ShardedMajority.Outcome outcome = ShardedMajority.coordinate(10, ins, outs);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println("Majority: " + outcome.majority);
+            System.out.println("Heavy hitters: " + outcome.heavyHitters);
+            System.out.printf("Coordinated in %,d ms; each Boyer-Moore summary is %d bytes instead of %,d bytes of data%n",
+                    elapsed / 1_000_000, MajoritySummary.BYTES, perShard * Integer.BYTES);
+        } catch (IOException e) {
+            System.err.println("Error running sharded benchmark: " + e.getMessage());
+        } finally {
+            for (Process worker : workers) {
+                worker.destroy();
+            }
+        }
+    }
+
+    // Worker JVM: shard i owns every chunk c with c % shards == i of one generated dataset.
+    private static void runShardWorker(int index, int shards, long perShard) {
+        DatasetGenerator generator = new DatasetGenerator(DatasetGenerator.Distribution.UNIFORM,
+                perShard * shards, 42, 100, true);
+        int[] buffer = new int[DatasetGenerator.CHUNK_SIZE];
+        ShardedMajority.Shard shard = sink -> {
+            for (long chunk = index; chunk < generator.chunkCount(); chunk += shards) {
+                int length = generator.generateChunk(chunk, buffer);
+                sink.accept(buffer, 0, length);
+            }
+        };
+
+        try {
+            ShardedMajority.serve(shard,
+                    new DataInputStream(new BufferedInputStream(System.in)),
+                    new DataOutputStream(new BufferedOutputStream(System.out)));
+        } catch (IOException e) {
+            System.err.println("Shard " + index + " failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void runGroupedBenchmark(int pairs, int groups) {
+        System.out.printf("=== Grouped Majority: %,d pairs over %,d keys ===%n", pairs, groups);
+
+        Random random = new Random(42);
+        int[] keys = new int[pairs];
+        int[] values = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            int key = random.nextInt(groups);
+            keys[i] = key;
+            // Every other key has a strong favourite, the rest are spread out.
+            values[i] = (key & 1) == 0 && random.nextInt(10) < 6 ? key : random.nextInt(1000);
+        }
+
+        GroupedMajorityVote grouped = new GroupedMajorityVote();
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        long sink = 0;
+        for (int i = 0; i < 3; i++) {
+            sink += grouped.findMajorityElements(keys, values).size();
+            sink += splitAndVote(bm, keys, values);
+        }
+
+        int runs = 5;
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += splitAndVote(bm, keys, values);
+        }
+        long splitTime = (System.nanoTime() - start) / runs;
+
+        start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += grouped.findMajorityElements(keys, values).size();
+        }
+        long groupedTime = (System.nanoTime() - start) / runs;
+
+        System.out.printf("Boxed split + per-key vote: %,12d us (%,.0f pairs/s)%n",
+                splitTime / 1000, pairs / (splitTime / 1e9));
+        System.out.printf("Grouped engine:             %,12d us (%,.0f pairs/s, %d workers)%n",
+                groupedTime / 1000, pairs / (groupedTime / 1e9),
+                java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static long splitAndVote(BoyerMooreMajorityVote bm, int[] keys, int[] values) {
+        Map<Integer, List<Integer>> split = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            split.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(values[i]);
+        }
+        long majorities = 0;
+        for (List<Integer> group : split.values()) {
+            int[] array = group.stream().mapToInt(Integer::intValue).toArray();
+            if (bm.findMajorityElementDetailed(array).isMajority) {
+                majorities++;
+            }
+        }
+        return majorities;
+    }
+
+    private static void runWeightedBenchmark(int size) {
+        System.out.printf("=== Weighted Majority vs Sort-and-Sum: %,d ballots ===%n", size);
+
+        Random random = new Random(42);
+        int[] values = new int[size];
+        long[] weights = new long[size];
+        double[] decayed = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(3) == 0 ? 7 : random.nextInt(100_000);
+            weights[i] = values[i] == 7 ? 5 + random.nextInt(10) : 1 + random.nextInt(5);
+            decayed[i] = weights[i] * Math.exp(-i / (double) size);
+        }
+
+        WeightedMajorityVote weighted = new WeightedMajorityVote();
+        long sink = 0;
+        for (int i = 0; i < 3; i++) {
+            sink += weighted.findMajorityElement(values, weights);
+            sink += weighted.findMajorityElement(values, decayed);
+            sink += sortAndSum(values, weights);
+        }
+
+        int runs = 5;
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += sortAndSum(values, weights);
+        }
+        long sortTime = (System.nanoTime() - start) / runs;
+
+        start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += weighted.findMajorityElement(values, weights);
+        }
+        long longTime = (System.nanoTime() - start) / runs;
+
+        start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            sink += weighted.findMajorityElement(values, decayed);
+        }
+        long doubleTime = (System.nanoTime() - start) / runs;
+
+        System.out.println(weighted.findMajorityElementDetailed(values, weights));
+        System.out.printf("Sort-and-sum:            %,12d us%n", sortTime / 1000);
+        System.out.printf("Weighted vote (long):    %,12d us (%.1fx)%n", longTime / 1000, (double) sortTime / longTime);
+        System.out.printf("Weighted vote (double):  %,12d us (%.1fx, %d workers)%n", doubleTime / 1000,
+                (double) sortTime / doubleTime, java.util.concurrent.ForkJoinPool.getCommonPoolParallelism());
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Baseline: sort (value, index) pairs, sum the weight of each run of equal
+     * values and keep the heaviest.
+     */
+    private static int sortAndSum(int[] values, long[] weights) {
+        long[] order = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            order[i] = ((long) values[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        long total = 0;
+        long best = -1;
+        int bestValue = Integer.MIN_VALUE;
+        int i = 0;
+        while (i < order.length) {
+            int value = (int) (order[i] >> 32);
+            long sum = 0;
+            while (i < order.length && (int) (order[i] >> 32) == value) {
+                sum += weights[(int) order[i]];
+                i++;
+            }
+            total += sum;
+            if (sum > best) {
+                best = sum;
+                bestValue = value;
+            }
+        }
+        return best > total - best ? bestValue : Integer.MIN_VALUE;
+    }
+
+    private static void runVoteService(String address) {
+        try {
+            MajorityVoteServer server = MajorityVoteServer.start(MajorityVoteServer.parseAddress(address));
+            System.out.println("Majority vote service listening on " + server.getLocalAddress());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    System.err.println("Vote service stopped early: " + e.getMessage());
+                }
+                System.out.printf("Served %,d requests in %,d batches (%,d failed)%n",
+                        server.getRequestsServed(), server.getBatchesRun(), server.getBatchesFailed());
+            }));
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            System.err.println("Error starting vote service: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Load generator: each client thread sends requestsPerClient arrays of the
+     * given size over its own connection and waits for each answer. With no
+     * address an embedded loopback service is started.
+     */
+    private static void runServiceLoad(int clients, int requestsPerClient, int size, String address) {
+        System.out.printf("=== Vote Service Load: %d clients x %,d requests of %,d ints ===%n",
+                clients, requestsPerClient, size);
+
+        Random random = new Random(42);
+        int[][] payloads = new int[64][];
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = generateTestArray(size, random.nextBoolean(), false, random);
+        }
+
+        MajorityVoteServer embedded = null;
+        try {
+            java.net.SocketAddress target;
+            if (address == null) {
+                embedded = MajorityVoteServer.start(new java.net.InetSocketAddress(
+                        java.net.InetAddress.getLoopbackAddress(), 0));
+                target = embedded.getLocalAddress();
+            } else {
+                target = MajorityVoteServer.parseAddress(address);
+            }
+
+            LatencyHistogram serviceLatency = new LatencyHistogram();
+            runClients(target, clients, Math.min(requestsPerClient, 2_000), payloads, new LatencyHistogram());
+            long start = System.nanoTime();
+            runClients(target, clients, requestsPerClient, payloads, serviceLatency);
+            long serviceTime = System.nanoTime() - start;
+
+            LatencyHistogram inProcessLatency = new LatencyHistogram();
+            BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+            long sink = 0;
+            for (int i = 0; i < 20_000; i++) {
+                sink += bm.findMajorityElementDetailed(payloads[i % payloads.length]).frequency;
+            }
+            long total = (long) clients * requestsPerClient;
+            start = System.nanoTime();
+            for (long i = 0; i < total; i++) {
+                long callStart = System.nanoTime();
+                sink += bm.findMajorityElementDetailed(payloads[(int) (i % payloads.length)]).frequency;
+                inProcessLatency.record(System.nanoTime() - callStart);
+            }
+            long inProcessTime = System.nanoTime() - start;
+
+            printLoadLine("Service (" + target + ")", total, serviceTime, serviceLatency);
+            printLoadLine("In-process call", total, inProcessTime, inProcessLatency);
+            if (embedded != null) {
+                System.out.printf("Average batch: %.1f requests%n",
+                        (double) embedded.getRequestsServed() / Math.max(1, embedded.getBatchesRun()));
+            }
+            if (sink == 42) {
+                System.out.println();
+            }
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error running service load: " + e);
+        } finally {
+            if (embedded != null) {
+                try {
+                    embedded.close();
+                } catch (IOException ignored) {
+                    // Benchmark is over.
+                }
+            }
+        }
+    }
+
+    private static void runClients(java.net.SocketAddress target, int clients, int requests, int[][] payloads,
+                                   LatencyHistogram latencies) throws InterruptedException {
+        Thread[] threads = new Thread[clients];
+        for (int t = 0; t < clients; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                try (MajorityVoteClient client = MajorityVoteClient.connect(target)) {
+                    for (int i = 0; i < requests; i++) {
+                        long callStart = System.nanoTime();
+                        client.findMajorityElementDetailed(payloads[(i + offset) % payloads.length]);
+                        latencies.record(System.nanoTime() - callStart);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Load client failed: " + e.getMessage());
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void printLoadLine(String label, long requests, long elapsedNanos, LatencyHistogram latencies) {
+        System.out.printf("%-32s %,12.0f req/s  p50 %,9d ns  p99 %,10d ns  p99.9 %,10d ns  max %,11d ns%n",
+                label, requests / (elapsedNanos / 1e9),
+                latencies.getPercentile(50), latencies.getPercentile(99),
+                latencies.getPercentile(99.9), latencies.getMax());
+    }
+
+    private static void runOffHeapBenchmark() {
+        System.out.println("=== Off-Heap Buffers: In-Place vs Copy-Then-Vote ===");
+
+        int[] sizes = {10_000, 1_000_000, 16_000_000};
+        Random random = new Random(42);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+
+        System.out.printf("%-12s | %-16s | %-16s | %-16s%n", "Size", "IntBuffer(ns)", "ByteBuffer(ns)", "Copy(ns)");
+        System.out.println("-------------|------------------|------------------|-----------------");
+
+        for (int size : sizes) {
+            int[] array = generateTestArray(size, true, false, random);
+            ByteBuffer bytes = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.asIntBuffer().put(array);
+            IntBuffer ints = bytes.asIntBuffer();
+            int runs = Math.max(5, 20_000_000 / size);
+
+            long sink = 0;
+            for (int i = 0; i < runs; i++) {
+                sink += bm.findMajorityElementDetailedInBuffer(ints).frequency;
+                sink += bm.findMajorityElementDetailedInBuffer(bytes, ByteOrder.LITTLE_ENDIAN).frequency;
+                sink += copyThenVote(bm, ints);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += bm.findMajorityElementDetailedInBuffer(ints).frequency;
+            }
+            long intBufferTime = (System.nanoTime() - start) / runs;
+
+            start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += bm.findMajorityElementDetailedInBuffer(bytes, ByteOrder.LITTLE_ENDIAN).frequency;
+            }
+            long byteBufferTime = (System.nanoTime() - start) / runs;
+
+            start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += copyThenVote(bm, ints);
+            }
+            long copyTime = (System.nanoTime() - start) / runs;
+
+            System.out.printf("%,12d | %,16d | %,16d | %,16d%n", size, intBufferTime, byteBufferTime, copyTime);
+            if (sink == 42) {
+                System.out.println();
+            }
+        }
+    }
+
+    private static int copyThenVote(BoyerMooreMajorityVote bm, IntBuffer ints) {
+        int[] copy = new int[ints.remaining()];
+        ints.duplicate().get(copy);
+        return bm.findMajorityElementDetailed(copy).frequency;
+    }
+
+    private static void runTextIngestBenchmark(Path file) {
+        System.out.println("=== Text Ingestion: Parse and Vote ===");
+        boolean temporary = file == null;
+
+        try {
+            if (temporary) {
+                file = Files.createTempFile("majority", ".txt");
+                writeTextFile(file, generateTestArray(10_000_000, true, false, new Random(42)));
+            }
+            IntTextParser parser = new IntTextParser();
+            BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+            long[] voteTime = {0};
+
+            parser.vote(file);
+
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                parser.parse(channel, (values, off, len) -> {
+                    long t = System.nanoTime();
+                    vote.accept(values, off, len);
+                    voteTime[0] += System.nanoTime() - t;
+                });
+            }
+            long total = System.nanoTime() - start;
+            long parseTime = total - voteTime[0];
+
+            BoyerMooreMajorityVote.Verifier verifier = vote.verifier();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                parser.parse(channel, verifier::accept);
+            }
+
+            System.out.printf("File: %s (%,d bytes, %,d values)%n", file, parser.getBytesRead(), parser.getValuesParsed());
+            System.out.printf("Parse: %,.1f MB/s, %,.0f values/s%n",
+                    parser.getBytesRead() / 1e6 / (parseTime / 1e9), parser.getValuesParsed() / (parseTime / 1e9));
+            System.out.printf("Vote:  %,.0f values/s%n", parser.getValuesParsed() / (voteTime[0] / 1e9));
+            System.out.printf("Candidate %d appears %,d/%,d times, majority: %b%n",
+                    verifier.getCandidate(), verifier.getFrequency(), verifier.getSeen(), verifier.isMajority());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error running text ingestion benchmark: " + e.getMessage());
+        } finally {
+            if (temporary && file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static void writeTextFile(Path file, int[] values) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int value : values) {
+                writer.write(Integer.toString(value));
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -1,7 +1,20 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class BoyerMooreMajorityVote {
 
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    static final int PILOT_SAMPLES = 32;
+    static final int FIRST_BATCH = 64;
+    static final int MAX_SAMPLES = 1 << 14;
+
     private PerformanceTracker performanceTracker;
     private boolean collectMetrics;
 
@@ -47,81 +60,94 @@ public class BoyerMooreMajorityVote {
     }
 
     private int findCandidate(int[] nums) {
+        Object event = PhaseEvents.beginCandidate();
+
         int candidate = 0;
         int count = 0;
+        long resets = 0;
 
         for (int num : nums) {
-            if (collectMetrics) {
-                performanceTracker.incrementComparisons(1);
-                performanceTracker.incrementArrayAccess(1);
-            }
-
             if (count == 0) {
                 candidate = num;
                 count = 1;
-
-                if (collectMetrics) {
-                    performanceTracker.incrementAssignments(2);
-                }
+                resets++;
             } else if (candidate == num) {
                 count++;
-
-                if (collectMetrics) {
-                    performanceTracker.incrementAssignments(1);
-                }
             } else {
                 count--;
-
-                if (collectMetrics) {
-                    performanceTracker.incrementAssignments(1);
-                }
             }
         }
 
+        if (collectMetrics) {
+            // One comparison and access per element; a reset assigns both candidate and count.
+            performanceTracker.incrementComparisons(nums.length);
+            performanceTracker.incrementArrayAccess(nums.length);
+            performanceTracker.incrementAssignments(nums.length + resets);
+        }
+
+        if (event != null) {
+            PhaseEvents.commitCandidate(event, nums.length, candidate, count);
+        }
+
         return candidate;
     }
 
     private boolean verifyCandidate(int[] nums, int candidate) {
-        int count = 0;
         int majorityThreshold = nums.length / 2;
 
-        for (int num : nums) {
-            if (collectMetrics) {
-                performanceTracker.incrementComparisons(1);
-                performanceTracker.incrementArrayAccess(1);
-            }
+        Object event = PhaseEvents.beginVerify();
 
-            if (num == candidate) {
-                count++;
+        if (!collectMetrics) {
+            if (event == null) {
+                return VectorizedFrequency.exceeds(nums, candidate, majorityThreshold);
+            }
+            int decidedAt = VectorizedFrequency.decidedAt(nums, candidate, majorityThreshold);
+            PhaseEvents.commitVerify(event, nums.length, candidate, decidedAt >= 0,
+                    decidedAt >= 0 ? decidedAt : ~decidedAt);
+            return decidedAt >= 0;
+        }
 
-                if (collectMetrics) {
-                    performanceTracker.incrementAssignments(1);
-                }
+        int count = 0;
+        int scanned = 0;
+        boolean isMajority = false;
 
-                if (count > majorityThreshold) {
-                    if (collectMetrics) {
-                        performanceTracker.incrementComparisons(1);
-                    }
-                    return true;
-                }
+        while (scanned < nums.length) {
+            if (nums[scanned++] == candidate && ++count > majorityThreshold) {
+                isMajority = true;
+                break;
             }
         }
 
-        if (collectMetrics) {
-            performanceTracker.incrementComparisons(1);
+        performanceTracker.incrementComparisons(scanned + 1L);
+        performanceTracker.incrementArrayAccess(scanned);
+        performanceTracker.incrementAssignments(count);
+
+        if (event != null) {
+            PhaseEvents.commitVerify(event, nums.length, candidate, isMajority, scanned);
         }
 
-        return count > majorityThreshold;
+        return isMajority;
     }
 
     public MajorityResult findMajorityElementDetailed(int[] nums) {
         if (collectMetrics) {
             performanceTracker.startTimer();
+        }
+        MajorityResult result = detailed(nums);
+        if (collectMetrics) {
+            performanceTracker.stopTimer();
+        }
+        return result;
+    }
+
+    // Untimed body of findMajorityElementDetailed, so callers that already
+    // run the timer can reuse it without restarting it.
+    private MajorityResult detailed(int[] nums) {
+        if (collectMetrics) {
             performanceTracker.incrementArrayAccess(nums != null ? nums.length : 0);
         }
 
         if (nums == null || nums.length == 0) {
-            if (collectMetrics) performanceTracker.stopTimer();
             return new MajorityResult(Integer.MIN_VALUE, 0, 0, false);
         }
 
@@ -129,32 +155,319 @@ public class BoyerMooreMajorityVote {
         int frequency = countFrequency(nums, candidate);
         boolean isMajority = frequency > nums.length / 2;
 
+        return new MajorityResult(candidate, frequency, nums.length, isMajority);
+    }
+
+    private int countFrequency(int[] nums, int candidate) {
+        Object event = PhaseEvents.beginFrequency();
+
+        int count = VectorizedFrequency.count(nums, 0, nums.length, candidate);
+
+        if (event != null) {
+            PhaseEvents.commitFrequency(event, nums.length, candidate, count);
+        }
+
         if (collectMetrics) {
-            performanceTracker.stopTimer();
+            performanceTracker.incrementComparisons(nums.length);
+            performanceTracker.incrementArrayAccess(nums.length);
+            performanceTracker.incrementAssignments(count);
         }
 
-        return new MajorityResult(candidate, frequency, nums.length, isMajority);
+        return count;
     }
 
-    private int countFrequency(int[] nums, int candidate) {
+    /**
+     * Votes over the remaining values of a heap, direct or mapped buffer in
+     * place; the buffer's position is not changed. Named apart from
+     * findMajorityElement(int[]) so that existing findMajorityElement(null)
+     * calls stay unambiguous.
+     */
+    public int findMajorityElementInBuffer(IntBuffer values) {
+        if (collectMetrics) {
+            performanceTracker.startTimer();
+        }
+        if (values == null || !values.hasRemaining()) {
+            if (collectMetrics) performanceTracker.stopTimer();
+            return Integer.MIN_VALUE;
+        }
+
+        StreamingVote vote = new StreamingVote();
+        vote.accept(values);
+        int candidate = vote.currentCandidate();
+
+        int threshold = values.remaining() / 2;
         int count = 0;
-        for (int num : nums) {
-            if (collectMetrics) {
-                performanceTracker.incrementComparisons(1);
-                performanceTracker.incrementArrayAccess(1);
+        int scanned = 0;
+        boolean isMajority = false;
+        for (int i = values.position(), end = values.limit(); i < end; i++) {
+            scanned++;
+            if (values.get(i) == candidate && ++count > threshold) {
+                isMajority = true;
+                break;
             }
+        }
 
-            if (num == candidate) {
-                count++;
+        if (collectMetrics) {
+            performanceTracker.incrementComparisons(values.remaining() + scanned + 1L);
+            performanceTracker.incrementArrayAccess((long) values.remaining() + scanned);
+            performanceTracker.stopTimer();
+        }
+        return isMajority ? candidate : Integer.MIN_VALUE;
+    }
+
+    public MajorityResult findMajorityElementDetailedInBuffer(IntBuffer values) {
+        if (collectMetrics) {
+            performanceTracker.startTimer();
+        }
+        if (values == null || !values.hasRemaining()) {
+            if (collectMetrics) performanceTracker.stopTimer();
+            return new MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+
+        StreamingVote vote = new StreamingVote();
+        vote.accept(values);
+        Verifier verifier = vote.verifier();
+        verifier.accept(values);
 
+        if (collectMetrics) {
+            performanceTracker.incrementComparisons(2L * values.remaining());
+            performanceTracker.incrementArrayAccess(2L * values.remaining());
+            performanceTracker.stopTimer();
+        }
+        return verifier.result();
+    }
+
+    /**
+     * Votes over the remaining bytes of the buffer read as 4-byte ints in the
+     * given order, without copying them.
+     */
+    public int findMajorityElementInBuffer(ByteBuffer bytes, ByteOrder order) {
+        return findMajorityElementInBuffer(asIntBuffer(bytes, order));
+    }
+
+    public MajorityResult findMajorityElementDetailedInBuffer(ByteBuffer bytes, ByteOrder order) {
+        return findMajorityElementDetailedInBuffer(asIntBuffer(bytes, order));
+    }
+
+    private static IntBuffer asIntBuffer(ByteBuffer bytes, ByteOrder order) {
+        if (bytes == null) {
+            return null;
+        }
+        if (bytes.remaining() % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Remaining bytes " + bytes.remaining()
+                    + " are not a multiple of " + Integer.BYTES);
+        }
+        return bytes.duplicate().order(order).asIntBuffer();
+    }
+
+    /**
+     * Decides the majority from random samples when the evidence is strong
+     * enough, and falls back to the exact two-pass scan otherwise. A pilot
+     * sample picks the candidate; fresh samples in doubling batches then test
+     * it with a Hoeffding bound, with the error budget 1 - confidence split
+     * evenly over the batches. Majority is proven when the candidate's lower
+     * bound exceeds 1/2, and ruled out when even the most frequent sampled
+     * value's upper bound stays below 1/2.
+     */
+    public ApproximateMajorityResult findMajorityElementApproximate(int[] nums, double confidence) {
+        if (confidence <= 0 || confidence >= 1) {
+            throw new IllegalArgumentException("Confidence must be in (0, 1), got " + confidence);
+        }
+        // One timer covers the whole call, including sampling that ends in
+        // the exact fallback.
+        if (collectMetrics) {
+            performanceTracker.startTimer();
+        }
+        if (nums == null || nums.length < 4 * MAX_SAMPLES) {
+            return exactApproximateResult(nums, 0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int n = nums.length;
+        int[] pilot = new int[PILOT_SAMPLES];
+        for (int i = 0; i < PILOT_SAMPLES; i++) {
+            pilot[i] = nums[random.nextInt(n)];
+        }
+        int candidate = findCandidate(pilot);
+
+        int batches = Integer.numberOfTrailingZeros(MAX_SAMPLES / FIRST_BATCH) + 1;
+        double logTerm = Math.log(2.0 * batches / (1 - confidence));
+        // Sized for the first batch; most calls stop long before MAX_SAMPLES.
+        IntCountMap sampled = new IntCountMap(FIRST_BATCH);
+        long hits = 0;
+        long modeCount = 0;
+        int modeValue = candidate;
+        int samples = 0;
+
+        for (int target = FIRST_BATCH; target <= MAX_SAMPLES; target *= 2) {
+            for (; samples < target; samples++) {
+                int value = nums[random.nextInt(n)];
+                if (value == candidate) {
+                    hits++;
+                }
+                long count = sampled.add(value, 1);
+                if (count > modeCount) {
+                    modeCount = count;
+                    modeValue = value;
+                }
+            }
+
+            double epsilon = Math.sqrt(logTerm / (2.0 * samples));
+            double share = (double) hits / samples;
+            boolean proven = share - epsilon > 0.5;
+            boolean ruledOut = (double) modeCount / samples + epsilon < 0.5;
+
+            if (proven || ruledOut) {
                 if (collectMetrics) {
-                    performanceTracker.incrementAssignments(1);
+                    // The pilot was already counted by findCandidate.
+                    performanceTracker.incrementArrayAccess(samples);
+                    performanceTracker.incrementComparisons(samples);
+                    performanceTracker.stopTimer();
                 }
+                int reported = proven ? candidate : modeValue;
+                long estimated = Math.round((double) (proven ? hits : modeCount) / samples * n);
+                return new ApproximateMajorityResult(reported, (int) estimated, n, proven,
+                        confidence, estimated, PILOT_SAMPLES + samples, false);
             }
         }
-        return count;
+
+        if (collectMetrics) {
+            performanceTracker.incrementArrayAccess(samples);
+            performanceTracker.incrementComparisons(samples);
+        }
+        return exactApproximateResult(nums, PILOT_SAMPLES + samples);
+    }
+
+    private ApproximateMajorityResult exactApproximateResult(int[] nums, long alreadyTouched) {
+        MajorityResult exact = detailed(nums);
+        if (collectMetrics) {
+            performanceTracker.stopTimer();
+        }
+        long scanned = nums == null ? 0 : 2L * nums.length;
+        return new ApproximateMajorityResult(exact.candidate, exact.frequency, exact.totalElements,
+                exact.isMajority, 1.0, exact.frequency, alreadyTouched + scanned, true);
+    }
+
+    public int findMajorityElementParallel(int[] nums) {
+        return findMajorityElementParallel(nums, ForkJoinPool.commonPool());
+    }
+
+    public int findMajorityElementParallel(int[] nums, ForkJoinPool pool) {
+        MajorityResult result = findMajorityElementDetailedParallel(nums, pool);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
     }
 
+    public MajorityResult findMajorityElementDetailedParallel(int[] nums) {
+        return findMajorityElementDetailedParallel(nums, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the candidate and frequency passes on the given pool rather than
+     * the common pool.
+     */
+    public MajorityResult findMajorityElementDetailedParallel(int[] nums, ForkJoinPool pool) {
+        if (nums == null || nums.length < PARALLEL_THRESHOLD) {
+            return findMajorityElementDetailed(nums);
+        }
+
+        if (collectMetrics) {
+            performanceTracker.startTimer();
+        }
+
+        long[] pair = pool.invoke(new CandidateTask(nums, 0, nums.length));
+        int candidate = (int) pair[0];
+        int frequency = pool.invoke(new FrequencyTask(nums, 0, nums.length, candidate));
+        boolean isMajority = frequency > nums.length / 2;
+
+        if (collectMetrics) {
+            // Worker threads do not touch the tracker; the per-element counts are flushed here.
+            performanceTracker.incrementComparisons(2L * nums.length);
+            performanceTracker.incrementArrayAccess(2L * nums.length);
+            performanceTracker.stopTimer();
+        }
+
+        return new MajorityResult(candidate, frequency, nums.length, isMajority);
+    }
+
+    /**
+     * Boyer-Moore reduction of two partial (candidate, count) summaries.
+     */
+    static long[] mergeCandidates(long[] left, long[] right) {
+        if (left[1] == 0) return right;
+        if (right[1] == 0) return left;
+        if (left[0] == right[0]) {
+            return new long[]{left[0], left[1] + right[1]};
+        }
+        if (left[1] >= right[1]) {
+            return new long[]{left[0], left[1] - right[1]};
+        }
+        return new long[]{right[0], right[1] - left[1]};
+    }
+
+    private static final class CandidateTask extends RecursiveTask<long[]> {
+        private final int[] nums;
+        private final int from;
+        private final int to;
+
+        CandidateTask(int[] nums, int from, int to) {
+            this.nums = nums;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                int candidate = 0;
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    int num = nums[i];
+                    if (count == 0) {
+                        candidate = num;
+                        count = 1;
+                    } else if (candidate == num) {
+                        count++;
+                    } else {
+                        count--;
+                    }
+                }
+                return new long[]{candidate, count};
+            }
+
+            int mid = (from + to) >>> 1;
+            CandidateTask left = new CandidateTask(nums, from, mid);
+            left.fork();
+            long[] right = new CandidateTask(nums, mid, to).compute();
+            return mergeCandidates(left.join(), right);
+        }
+    }
+
+    private static final class FrequencyTask extends RecursiveTask<Integer> {
+        private final int[] nums;
+        private final int from;
+        private final int to;
+        private final int candidate;
+
+        FrequencyTask(int[] nums, int from, int to, int candidate) {
+            this.nums = nums;
+            this.from = from;
+            this.to = to;
+            this.candidate = candidate;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return VectorizedFrequency.count(nums, from, to, candidate);
+            }
+
+            int mid = (from + to) >>> 1;
+            FrequencyTask left = new FrequencyTask(nums, from, mid, candidate);
+            left.fork();
+            int right = new FrequencyTask(nums, mid, to, candidate).compute();
+            return left.join() + right;
+        }
+    }
 
     public PerformanceTracker getPerformanceTracker() {
         if (!collectMetrics) {
@@ -170,6 +483,170 @@ public class BoyerMooreMajorityVote {
         }
     }
 
+    /**
+     * Incremental candidate pass for data that arrives in pieces. Feed every
+     * value once, then replay the same data into {@link #verifier()}.
+     */
+    public static class StreamingVote {
+        private int candidate;
+        private long count;
+        private long seen;
+
+        public void accept(int value) {
+            if (count == 0) {
+                candidate = value;
+                count = 1;
+            } else if (candidate == value) {
+                count++;
+            } else {
+                count--;
+            }
+            seen++;
+        }
+
+        public void accept(int[] chunk, int off, int len) {
+            Objects.checkFromIndexSize(off, len, chunk.length);
+            int c = candidate;
+            long n = count;
+            for (int i = off, end = off + len; i < end; i++) {
+                int value = chunk[i];
+                if (n == 0) {
+                    c = value;
+                    n = 1;
+                } else if (c == value) {
+                    n++;
+                } else {
+                    n--;
+                }
+            }
+            candidate = c;
+            count = n;
+            seen += len;
+        }
+
+        /**
+         * Consumes the remaining values of the buffer in place (heap, direct or
+         * mapped) without moving its position.
+         */
+        public void accept(IntBuffer values) {
+            int c = candidate;
+            long n = count;
+            for (int i = values.position(), end = values.limit(); i < end; i++) {
+                int value = values.get(i);
+                if (n == 0) {
+                    c = value;
+                    n = 1;
+                } else if (c == value) {
+                    n++;
+                } else {
+                    n--;
+                }
+            }
+            candidate = c;
+            count = n;
+            seen += values.remaining();
+        }
+
+        public int currentCandidate() {
+            return candidate;
+        }
+
+        public long currentCount() {
+            return count;
+        }
+
+        public long getSeen() {
+            return seen;
+        }
+
+        public Verifier verifier() {
+            return new Verifier(candidate, seen);
+        }
+
+        public void reset() {
+            candidate = 0;
+            count = 0;
+            seen = 0;
+        }
+    }
+
+    /**
+     * Second pass of a streaming vote: counts how often the candidate occurs
+     * when the original data is fed through again.
+     */
+    public static class Verifier {
+        private final int candidate;
+        private final long expectedTotal;
+        private long frequency;
+        private long seen;
+
+        public Verifier(int candidate, long expectedTotal) {
+            this.candidate = candidate;
+            this.expectedTotal = expectedTotal;
+        }
+
+        public void accept(int value) {
+            if (value == candidate) {
+                frequency++;
+            }
+            seen++;
+        }
+
+        public void accept(int[] chunk, int off, int len) {
+            Objects.checkFromIndexSize(off, len, chunk.length);
+            frequency += VectorizedFrequency.count(chunk, off, off + len, candidate);
+            seen += len;
+        }
+
+        public void accept(IntBuffer values) {
+            long matches = 0;
+            for (int i = values.position(), end = values.limit(); i < end; i++) {
+                if (values.get(i) == candidate) {
+                    matches++;
+                }
+            }
+            frequency += matches;
+            seen += values.remaining();
+        }
+
+        public void accept(PrimitiveIterator.OfInt values) {
+            while (values.hasNext()) {
+                accept(values.nextInt());
+            }
+        }
+
+        public void accept(IntStream values) {
+            accept(values.iterator());
+        }
+
+        public int getCandidate() {
+            return candidate;
+        }
+
+        public long getFrequency() {
+            return frequency;
+        }
+
+        public long getSeen() {
+            return seen;
+        }
+
+        public boolean isMajority() {
+            return seen > 0 && frequency > seen / 2;
+        }
+
+        public MajorityResult result() {
+            if (seen != expectedTotal) {
+                throw new IllegalStateException(
+                        "Verifier saw " + seen + " values but the candidate pass saw " + expectedTotal);
+            }
+            if (seen == 0) {
+                return new MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+            }
+            return new MajorityResult(candidate, Math.toIntExact(frequency), Math.toIntExact(seen), isMajority());
+        }
+    }
+
     public static class MajorityResult {
         public final int candidate;
         public final int frequency;
@@ -193,4 +670,36 @@ public class BoyerMooreMajorityVote {
                     candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Result of {@link #findMajorityElementApproximate}. For sampled answers
+     * frequency holds the estimate; exact answers have confidence 1.
+     */
+    public static class ApproximateMajorityResult extends MajorityResult {
+        public final double confidence;
+        public final long estimatedFrequency;
+        public final long elementsTouched;
+        public final boolean exact;
+
+        public ApproximateMajorityResult(int candidate, int frequency, int totalElements, boolean isMajority,
+                                         double confidence, long estimatedFrequency, long elementsTouched,
+                                         boolean exact) {
+            super(candidate, frequency, totalElements, isMajority);
+            this.confidence = confidence;
+            this.estimatedFrequency = estimatedFrequency;
+            this.elementsTouched = elementsTouched;
+            this.exact = exact;
+        }
+
+        @Override
+        public String toString() {
+            if (exact) {
+                return super.toString() + String.format(" [exact, %d elements touched]", elementsTouched);
+            }
+            return String.format("%s element %d: estimated %d/%d times (%.1f%%) at %.4f confidence, "
+                            + "%d elements touched",
+                    isMajority ? "Majority" : "No majority; most sampled", candidate, estimatedFrequency,
+                    totalElements, estimatedFrequency * 100.0 / totalElements, confidence, elementsTouched);
+        }
+    }
+}
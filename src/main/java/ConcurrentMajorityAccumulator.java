@@ -0,0 +1,192 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Majority vote fed by many producer threads. Each thread votes into its own
+ * (candidate, count) partial without contention; {@link #currentCandidate()}
+ * combines the partials with the Boyer-Moore reduction without blocking the
+ * producers. The verify pass counts into LongAdders.
+ */
+public class ConcurrentMajorityAccumulator {
+
+    private final List<Partial> partials = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Partial> local = ThreadLocal.withInitial(this::register);
+
+    public void accept(int value) {
+        local.get().accept(value);
+    }
+
+    public void accept(int[] chunk, int off, int len) {
+        local.get().accept(chunk, off, len);
+    }
+
+    /**
+     * Merged (candidate, count) of every partial seen so far.
+     */
+    public long[] summary() {
+        long[] merged = {0, 0};
+        for (Partial partial : partials) {
+            merged = BoyerMooreMajorityVote.mergeCandidates(merged, partial.snapshot());
+        }
+        return merged;
+    }
+
+    public int currentCandidate() {
+        return (int) summary()[0];
+    }
+
+    public long getSeen() {
+        long seen = 0;
+        for (Partial partial : partials) {
+            seen += partial.seen;
+        }
+        return seen;
+    }
+
+    public ConcurrentVerifier verifier() {
+        return new ConcurrentVerifier(currentCandidate(), getSeen());
+    }
+
+    private Partial register() {
+        Partial partial = new Partial();
+        partials.add(partial);
+        return partial;
+    }
+
+    /**
+     * Single-writer partial published with a sequence lock: the owning thread
+     * makes the version odd while it updates, readers retry until they see the
+     * same even version before and after reading the pair.
+     */
+    private static final class Partial {
+        private static final VarHandle VERSION;
+
+        static {
+            try {
+                VERSION = MethodHandles.lookup().findVarHandle(Partial.class, "version", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long version;
+        private int candidate;
+        private long count;
+        private volatile long seen;
+
+        void accept(int value) {
+            int c = candidate;
+            long n = count;
+            if (n == 0) {
+                c = value;
+                n = 1;
+            } else if (c == value) {
+                n++;
+            } else {
+                n--;
+            }
+            publish(c, n, 1);
+        }
+
+        void accept(int[] chunk, int off, int len) {
+            int c = candidate;
+            long n = count;
+            for (int i = off, end = off + len; i < end; i++) {
+                int value = chunk[i];
+                if (n == 0) {
+                    c = value;
+                    n = 1;
+                } else if (c == value) {
+                    n++;
+                } else {
+                    n--;
+                }
+            }
+            publish(c, n, len);
+        }
+
+        private void publish(int c, long n, int added) {
+            long v = version;
+            VERSION.setOpaque(this, v + 1);
+            VarHandle.storeStoreFence();
+            candidate = c;
+            count = n;
+            VERSION.setRelease(this, v + 2);
+            seen += added;
+        }
+
+        long[] snapshot() {
+            while (true) {
+                long before = (long) VERSION.getAcquire(this);
+                int c = candidate;
+                long n = count;
+                VarHandle.loadLoadFence();
+                long after = (long) VERSION.getOpaque(this);
+                if ((before & 1) == 0 && before == after) {
+                    return new long[]{c, n};
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Second pass: producers replay their share of the data concurrently.
+     */
+    public static class ConcurrentVerifier {
+        private final int candidate;
+        private final long expectedTotal;
+        private final LongAdder frequency = new LongAdder();
+        private final LongAdder seen = new LongAdder();
+
+        public ConcurrentVerifier(int candidate, long expectedTotal) {
+            this.candidate = candidate;
+            this.expectedTotal = expectedTotal;
+        }
+
+        public void accept(int value) {
+            if (value == candidate) {
+                frequency.increment();
+            }
+            seen.increment();
+        }
+
+        public void accept(int[] chunk, int off, int len) {
+            frequency.add(VectorizedFrequency.count(chunk, off, off + len, candidate));
+            seen.add(len);
+        }
+
+        public int getCandidate() {
+            return candidate;
+        }
+
+        public long getFrequency() {
+            return frequency.sum();
+        }
+
+        public long getSeen() {
+            return seen.sum();
+        }
+
+        public boolean isMajority() {
+            long total = seen.sum();
+            return total > 0 && frequency.sum() > total / 2;
+        }
+
+        public BoyerMooreMajorityVote.MajorityResult result() {
+            long total = seen.sum();
+            if (total != expectedTotal) {
+                throw new IllegalStateException(
+                        "Verifier saw " + total + " values but the candidate pass saw " + expectedTotal);
+            }
+            if (total == 0) {
+                return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+            }
+            return new BoyerMooreMajorityVote.MajorityResult(candidate,
+                    Math.toIntExact(frequency.sum()), Math.toIntExact(total), isMajority());
+        }
+    }
+}
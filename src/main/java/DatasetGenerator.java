@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * Synthetic benchmark data generated chunk by chunk. Every chunk is derived
+ * from (seed, chunk index) alone, so chunks can be produced in any order and
+ * in parallel, and sizes beyond Integer.MAX_VALUE are written straight to a
+ * file. Files are cached on disk under a name built from all parameters.
+ */
+public final class DatasetGenerator {
+
+    public enum Distribution {
+        /** Uniform values; with a majority, each value is the majority element with probability 0.6. */
+        UNIFORM,
+        /** Zipf-distributed ranks 0..range-1 with the configured exponent. */
+        ZIPF,
+        /** Exactly n/2 majority elements (+1 with a majority) shuffled within each chunk. */
+        ADVERSARIAL,
+        /** a, b, a, b, ... so the Boyer-Moore candidate changes on every other element. */
+        ALTERNATING,
+        /** Runs of repeated values with random lengths. */
+        CLUSTERED,
+        /** Non-decreasing values with the majority block in the middle. */
+        SORTED
+    }
+
+    public static final int CHUNK_SIZE = 1 << 20;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final Distribution distribution;
+    private final long size;
+    private final long seed;
+    private final int range;
+    private final boolean hasMajority;
+    private final double zipfExponent;
+    private final int majorityElement;
+    private final double[] zipfCdf;
+
+    public DatasetGenerator(Distribution distribution, long size, long seed, int range, boolean hasMajority) {
+        this(distribution, size, seed, range, hasMajority, 1.1);
+    }
+
+    public DatasetGenerator(Distribution distribution, long size, long seed, int range,
+                            boolean hasMajority, double zipfExponent) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative, got " + size);
+        }
+        if (range < 3) {
+            throw new IllegalArgumentException("Range must be at least 3, got " + range);
+        }
+        this.distribution = distribution;
+        this.size = size;
+        this.seed = seed;
+        this.range = range;
+        this.hasMajority = hasMajority;
+        this.zipfExponent = zipfExponent;
+        this.majorityElement = new SplittableRandom(seed).nextInt(range);
+        this.zipfCdf = distribution == Distribution.ZIPF ? zipfCdf(range, zipfExponent) : null;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long chunkCount() {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Value planted as the majority by every distribution except ZIPF.
+     */
+    public int majorityElement() {
+        return majorityElement;
+    }
+
+    /**
+     * Cache key: identical parameters always produce identical data.
+     */
+    public String key() {
+        return String.format("%s-n%d-seed%d-range%d-%s%s", distribution.name().toLowerCase(), size, seed, range,
+                hasMajority ? "majority" : "nomajority",
+                distribution == Distribution.ZIPF ? "-s" + zipfExponent : "");
+    }
+
+    /**
+     * Fills buffer with chunk number chunkIndex and returns its length.
+     */
+    public int generateChunk(long chunkIndex, int[] buffer) {
+        long from = chunkIndex * CHUNK_SIZE;
+        if (chunkIndex < 0 || from >= size) {
+            throw new IndexOutOfBoundsException("Chunk " + chunkIndex + " out of range for size " + size);
+        }
+        int length = (int) Math.min(CHUNK_SIZE, size - from);
+        if (buffer.length < length) {
+            throw new IllegalArgumentException("Buffer needs at least " + length + " elements");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed + (chunkIndex + 1) * GOLDEN_GAMMA);
+        switch (distribution) {
+            case UNIFORM:
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = hasMajority && random.nextInt(10) < 6 ? majorityElement : random.nextInt(range);
+                }
+                break;
+            case ZIPF:
+                double[] cdf = zipfCdf;
+                for (int i = 0; i < length; i++) {
+                    int rank = Arrays.binarySearch(cdf, random.nextDouble());
+                    buffer[i] = Math.min(rank < 0 ? -rank - 1 : rank, range - 1);
+                }
+                break;
+            case ADVERSARIAL:
+                generateAdversarial(buffer, length, from + length == size, random);
+                break;
+            case ALTERNATING:
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = alternatingValue(from + i);
+                }
+                break;
+            case CLUSTERED:
+                for (int i = 0; i < length; ) {
+                    int value = random.nextInt(10) < (hasMajority ? 6 : 4) ? majorityElement : random.nextInt(range);
+                    int run = Math.min(length - i, 1 + random.nextInt(64));
+                    Arrays.fill(buffer, i, i + run, value);
+                    i += run;
+                }
+                break;
+            case SORTED:
+                for (int i = 0; i < length; i++) {
+                    buffer[i] = sortedValue(from + i);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown distribution " + distribution);
+        }
+        return length;
+    }
+
+    public int[] toArray() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Dataset of " + size + " elements does not fit in an int[]; use toFile");
+        }
+        int[] array = new int[(int) size];
+        int[] buffer = new int[CHUNK_SIZE];
+        for (long chunk = 0; chunk < chunkCount(); chunk++) {
+            int length = generateChunk(chunk, buffer);
+            System.arraycopy(buffer, 0, array, (int) (chunk * CHUNK_SIZE), length);
+        }
+        return array;
+    }
+
+    /**
+     * Returns the little-endian data file for this dataset in directory,
+     * generating it in parallel only when no cached copy exists.
+     */
+    public Path toFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(key() + ".bin");
+        if (Files.exists(file) && Files.size(file) == size * Integer.BYTES) {
+            return file;
+        }
+
+        Path temp = Files.createTempFile(directory, key(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            LongStream.range(0, chunkCount()).parallel().forEach(chunk -> writeChunk(channel, chunk));
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(temp);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    private void writeChunk(FileChannel channel, long chunk) {
+        int[] values = new int[CHUNK_SIZE];
+        int length = generateChunk(chunk, values);
+        ByteBuffer bytes = ByteBuffer.allocate(length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(values, 0, length);
+
+        long position = chunk * CHUNK_SIZE * Integer.BYTES;
+        try {
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void generateAdversarial(int[] buffer, int length, boolean lastChunk, SplittableRandom random) {
+        int majorityCount = length / 2 + (hasMajority && lastChunk ? 1 : 0);
+        for (int i = 0; i < length; i++) {
+            if (i < majorityCount) {
+                buffer[i] = majorityElement;
+            } else {
+                int value = random.nextInt(range - 1);
+                buffer[i] = value >= majorityElement ? value + 1 : value;
+            }
+        }
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = temp;
+        }
+    }
+
+    private int alternatingValue(long index) {
+        int other = majorityElement == 0 ? 1 : majorityElement - 1;
+        if (index == size - 1 && size % 2 == 0 && hasMajority) {
+            return majorityElement;
+        }
+        if (index == size - 1 && size % 2 == 1 && !hasMajority) {
+            int third = 0;
+            while (third == majorityElement || third == other) {
+                third++;
+            }
+            return third;
+        }
+        return index % 2 == 0 ? majorityElement : other;
+    }
+
+    // Values below and above the majority block are distinct and never equal
+    // to the majority element, so the planted count is exact.
+    private int sortedValue(long index) {
+        long blockLength = size / 2 + (hasMajority ? 1 : 0);
+        long blockStart = (size - blockLength) / 2;
+        long blockEnd = blockStart + blockLength;
+
+        if (index < blockStart) {
+            return (int) (majorityElement - Math.min(blockStart - index, (long) majorityElement + Integer.MAX_VALUE));
+        }
+        if (index < blockEnd) {
+            return majorityElement;
+        }
+        return (int) (majorityElement + 1 + Math.min(index - blockEnd, (long) Integer.MAX_VALUE - majorityElement - 1));
+    }
+
+    private static double[] zipfCdf(int range, double exponent) {
+        double[] cdf = new double[range];
+        double sum = 0;
+        for (int rank = 0; rank < range; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < range; rank++) {
+            cdf[rank] /= sum;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Mutable array with majority queries. A segment tree of Boyer-Moore
+ * (candidate, count) summaries is repaired along one leaf-to-root path per
+ * {@link #set}, and an open-addressing frequency map verifies the root
+ * candidate, so both updates and queries cost O(log n).
+ */
+public class DynamicMajority {
+
+    private final int n;
+    private final int[] treeCandidate;
+    private final int[] treeCount;
+    private final IntCountMap frequencies;
+
+    public DynamicMajority(int[] nums) {
+        if (nums == null) {
+            throw new IllegalArgumentException("Input array must not be null");
+        }
+        this.n = nums.length;
+        this.treeCandidate = new int[2 * n];
+        this.treeCount = new int[2 * n];
+        this.frequencies = new IntCountMap(Math.min(n, 1 << 16));
+
+        for (int i = 0; i < n; i++) {
+            treeCandidate[n + i] = nums[i];
+            treeCount[n + i] = 1;
+            frequencies.add(nums[i], 1);
+        }
+        for (int node = n - 1; node > 0; node--) {
+            pull(node);
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return treeCandidate[n + index];
+    }
+
+    public void set(int index, int value) {
+        checkIndex(index);
+        int leaf = n + index;
+        int old = treeCandidate[leaf];
+        if (old == value) {
+            return;
+        }
+
+        frequencies.add(old, -1);
+        frequencies.add(value, 1);
+        treeCandidate[leaf] = value;
+        for (int node = leaf >> 1; node > 0; node >>= 1) {
+            pull(node);
+        }
+    }
+
+    public int majority() {
+        if (n == 0) {
+            return Integer.MIN_VALUE;
+        }
+        int candidate = rootCandidate();
+        return frequencies.get(candidate) > n / 2 ? candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult majorityDetailed() {
+        if (n == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+        int candidate = rootCandidate();
+        int frequency = (int) frequencies.get(candidate);
+        return new BoyerMooreMajorityVote.MajorityResult(candidate, frequency, n, frequency > n / 2);
+    }
+
+    public int frequencyOf(int value) {
+        return (int) frequencies.get(value);
+    }
+
+    // Node 1 is the root; with a single element it is also the only leaf.
+    private int rootCandidate() {
+        return treeCandidate[1];
+    }
+
+    private void pull(int node) {
+        int left = 2 * node;
+        int right = left + 1;
+        int lc = treeCandidate[left];
+        int lk = treeCount[left];
+        int rc = treeCandidate[right];
+        int rk = treeCount[right];
+
+        if (lk == 0 || lc == rc) {
+            treeCandidate[node] = rk == 0 ? lc : rc;
+            treeCount[node] = lk + rk;
+        } else if (rk == 0 || lk >= rk) {
+            treeCandidate[node] = lc;
+            treeCount[node] = lk - rk;
+        } else {
+            treeCandidate[node] = rc;
+            treeCount[node] = rk - lk;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + n);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Second round of a sharded vote: the exact counts of the merged candidates
+ * in one shard. Reports for the same candidates are summed, and the sum
+ * decides which candidates are real majorities or heavy hitters.
+ */
+public final class FrequencyReport {
+
+    static final byte TAG = 'F';
+
+    public final int[] candidates;
+    public final long[] frequencies;
+    public final long total;
+
+    public FrequencyReport(int[] candidates, long[] frequencies, long total) {
+        if (candidates.length != frequencies.length) {
+            throw new IllegalArgumentException("Candidates and frequencies must have the same length");
+        }
+        this.candidates = candidates;
+        this.frequencies = frequencies;
+        this.total = total;
+    }
+
+    public static FrequencyReport count(int[] nums, int off, int len, int... candidates) {
+        long[] frequencies = new long[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            frequencies[i] = VectorizedFrequency.count(nums, off, off + len, candidates[i]);
+        }
+        return new FrequencyReport(candidates.clone(), frequencies, len);
+    }
+
+    public static FrequencyReport merge(FrequencyReport... reports) {
+        if (reports.length == 0) {
+            throw new IllegalArgumentException("Nothing to merge");
+        }
+        int[] candidates = reports[0].candidates;
+        long[] frequencies = new long[candidates.length];
+        long total = 0;
+        for (FrequencyReport report : reports) {
+            if (!Arrays.equals(candidates, report.candidates)) {
+                throw new IllegalArgumentException("Reports count different candidates");
+            }
+            for (int i = 0; i < frequencies.length; i++) {
+                frequencies[i] += report.frequencies[i];
+            }
+            total += report.total;
+        }
+        return new FrequencyReport(candidates.clone(), frequencies, total);
+    }
+
+    /**
+     * Majority verdict for a report on a single Boyer-Moore candidate. Counts
+     * must fit in an int; use {@link #toMajorityCount()} for merged reports
+     * that may cover more than Integer.MAX_VALUE values.
+     */
+    public BoyerMooreMajorityVote.MajorityResult toMajorityResult() {
+        if (candidates.length != 1) {
+            throw new IllegalStateException("Expected one candidate, got " + candidates.length);
+        }
+        if (total == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+        return new BoyerMooreMajorityVote.MajorityResult(candidates[0], Math.toIntExact(frequencies[0]),
+                Math.toIntExact(total), frequencies[0] > total / 2);
+    }
+
+    /**
+     * Majority verdict with long counts, for sharded totals of any size.
+     */
+    public MajorityCount toMajorityCount() {
+        if (candidates.length != 1) {
+            throw new IllegalStateException("Expected one candidate, got " + candidates.length);
+        }
+        if (total == 0) {
+            return new MajorityCount(Integer.MIN_VALUE, 0, 0, false);
+        }
+        return new MajorityCount(candidates[0], frequencies[0], total, frequencies[0] > total / 2);
+    }
+
+    /**
+     * Heavy hitters with long counts, for sharded totals of any size.
+     */
+    public HeavyHitterCounts toHeavyHitterCounts(int k) {
+        int found = 0;
+        int[] elements = new int[candidates.length];
+        long[] elementFrequencies = new long[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            if (frequencies[i] > total / k) {
+                elements[found] = candidates[i];
+                elementFrequencies[found] = frequencies[i];
+                found++;
+            }
+        }
+        return new HeavyHitterCounts(Arrays.copyOf(elements, found), Arrays.copyOf(elementFrequencies, found), total, k);
+    }
+
+    /**
+     * Counts must fit in an int; use {@link #toHeavyHitterCounts(int)} for
+     * merged reports that may cover more than Integer.MAX_VALUE values.
+     */
+    public MisraGriesHeavyHitters.HeavyHittersResult toHeavyHittersResult(int k) {
+        int found = 0;
+        int[] elements = new int[candidates.length];
+        long[] elementFrequencies = new long[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            if (frequencies[i] > total / k) {
+                elements[found] = candidates[i];
+                elementFrequencies[found] = frequencies[i];
+                found++;
+            }
+        }
+        return new MisraGriesHeavyHitters.HeavyHittersResult(Arrays.copyOf(elements, found),
+                Arrays.copyOf(elementFrequencies, found), Math.toIntExact(total), k);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(TAG);
+        out.writeLong(total);
+        out.writeInt(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            out.writeInt(candidates[i]);
+            out.writeLong(frequencies[i]);
+        }
+    }
+
+    public static FrequencyReport readFrom(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        if (tag != TAG) {
+            throw new IOException("Expected frequency report tag " + TAG + ", got " + tag);
+        }
+        long total = in.readLong();
+        int size = in.readInt();
+        if (size < 0 || size > 1 << 20) {
+            throw new IOException("Corrupt frequency report: size=" + size);
+        }
+        int[] candidates = new int[size];
+        long[] frequencies = new long[size];
+        for (int i = 0; i < size; i++) {
+            candidates[i] = in.readInt();
+            frequencies[i] = in.readLong();
+        }
+        return new FrequencyReport(candidates, frequencies, total);
+    }
+
+    /**
+     * Like {@link BoyerMooreMajorityVote.MajorityResult}, with long counts.
+     */
+    public static final class MajorityCount {
+        public final int candidate;
+        public final long frequency;
+        public final long totalElements;
+        public final boolean isMajority;
+
+        public MajorityCount(int candidate, long frequency, long totalElements, boolean isMajority) {
+            this.candidate = candidate;
+            this.frequency = frequency;
+            this.totalElements = totalElements;
+            this.isMajority = isMajority;
+        }
+
+        @Override
+        public String toString() {
+            if (!isMajority) {
+                return String.format("No majority element found. Candidate: %d (appears %d/%d times, %.1f%%)",
+                        candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+            }
+            return String.format("Majority element: %d (appears %d/%d times, %.1f%%)",
+                    candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+        }
+    }
+
+    /**
+     * Like {@link MisraGriesHeavyHitters.HeavyHittersResult}, with a long total.
+     */
+    public static final class HeavyHitterCounts {
+        public final int[] elements;
+        public final long[] frequencies;
+        public final long totalElements;
+        public final int k;
+
+        public HeavyHitterCounts(int[] elements, long[] frequencies, long totalElements, int k) {
+            this.elements = elements;
+            this.frequencies = frequencies;
+            this.totalElements = totalElements;
+            this.k = k;
+        }
+
+        @Override
+        public String toString() {
+            if (elements.length == 0) {
+                return String.format("No element appears more than %d/%d times", totalElements / k, totalElements);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Elements above n/%d (%d/%d):", k, totalElements / k, totalElements));
+            for (int i = 0; i < elements.length; i++) {
+                sb.append(String.format(" %d (appears %d times, %.1f%%)",
+                        elements[i], frequencies[i], frequencies[i] * 100.0 / totalElements));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Group-by majority: for parallel keys[] / values[] arrays, finds the majority
+ * value within each key. Boyer-Moore state (candidate, votes) is kept per key
+ * in primitive open-addressing tables, and each key is verified with a second
+ * pass over its own pairs.
+ *
+ * Large inputs are hash-partitioned by key: every chunk builds a histogram of
+ * partitions, the pairs are scattered into partition order, and each
+ * partition is then voted and verified by one task. The scatter copies both
+ * arrays once, so peak memory is about twice the input.
+ */
+public class GroupedMajorityVote {
+
+    static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+    static final int MAX_PARTITIONS = 256;
+
+    private final ForkJoinPool pool;
+
+    public GroupedMajorityVote() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public GroupedMajorityVote(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public GroupedResult findMajorityElements(int[] keys, int[] values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("keys and values must not be null");
+        }
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys has " + keys.length
+                    + " elements but values has " + values.length);
+        }
+
+        if (keys.length < SEQUENTIAL_THRESHOLD || pool.getParallelism() == 1) {
+            KeyTable table = new KeyTable(16);
+            table.vote(keys, values, 0, keys.length);
+            table.verify(keys, values, 0, keys.length);
+            return GroupedResult.of(new KeyTable[]{table});
+        }
+        return findPartitioned(keys, values);
+    }
+
+    private GroupedResult findPartitioned(int[] keys, int[] values) {
+        int n = keys.length;
+        int bits = Math.min(Integer.numberOfTrailingZeros(MAX_PARTITIONS),
+                32 - Integer.numberOfLeadingZeros(pool.getParallelism() * 4 - 1));
+        int partitions = 1 << bits;
+        int chunks = (int) Math.min(pool.getParallelism() * 4L, Math.max(1, n / SEQUENTIAL_THRESHOLD));
+        int chunkSize = (n + chunks - 1) / chunks;
+
+        // Pass 1: per-chunk partition histograms.
+        int[][] offsets = new int[chunks][partitions];
+        forEachParallel(chunks, c -> {
+            int[] histogram = offsets[c];
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+                histogram[partitionOf(keys[i], bits)]++;
+            }
+        });
+
+        // Turn the histograms into write offsets, partition-major so each
+        // partition ends up contiguous and in input order.
+        int[] partitionStart = new int[partitions + 1];
+        int position = 0;
+        for (int p = 0; p < partitions; p++) {
+            partitionStart[p] = position;
+            for (int c = 0; c < chunks; c++) {
+                int count = offsets[c][p];
+                offsets[c][p] = position;
+                position += count;
+            }
+        }
+        partitionStart[partitions] = position;
+
+        // Pass 2: scatter into partition order.
+        int[] partKeys = new int[n];
+        int[] partValues = new int[n];
+        forEachParallel(chunks, c -> {
+            int[] cursor = offsets[c];
+            for (int i = c * chunkSize, end = Math.min(n, i + chunkSize); i < end; i++) {
+                int target = cursor[partitionOf(keys[i], bits)]++;
+                partKeys[target] = keys[i];
+                partValues[target] = values[i];
+            }
+        });
+
+        // Pass 3: vote and verify each partition. The scattered keys are a
+        // private copy, so the vote pass overwrites them with group indexes and
+        // the verify pass needs no second lookup.
+        KeyTable[] tables = new KeyTable[partitions];
+        forEachParallel(partitions, p -> {
+            int from = partitionStart[p];
+            int to = partitionStart[p + 1];
+            KeyTable table = new KeyTable(16);
+            table.voteAndIndex(partKeys, partValues, from, to);
+            table.verifyIndexed(partKeys, partValues, from, to);
+            tables[p] = table;
+        });
+        return GroupedResult.of(tables);
+    }
+
+    private static int partitionOf(int key, int bits) {
+        // High hash bits pick the partition; KeyTable uses the low bits.
+        return bits == 0 ? 0 : IntCountMap.hash(key) >>> (32 - bits);
+    }
+
+    private void forEachParallel(int count, IntConsumer work) {
+        List<RecursiveAction> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    work.accept(index);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(tasks);
+            }
+        });
+    }
+
+    /**
+     * Per-key Boyer-Moore state for one partition. Keys are mapped to dense
+     * group indexes through an open-addressing table of index + 1 (zero is an
+     * empty slot); the state lives in parallel int arrays indexed by group.
+     */
+    private static final class KeyTable {
+        private int[] slots;
+        private int mask;
+        private int size;
+
+        private int[] groupKeys;
+        private int[] candidates;
+        private int[] votes;
+        private int[] totals;
+        private int[] frequencies;
+
+        KeyTable(int expectedGroups) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedGroups * 2) - 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            groupKeys = new int[expectedGroups];
+            candidates = new int[expectedGroups];
+            votes = new int[expectedGroups];
+            totals = new int[expectedGroups];
+            frequencies = new int[expectedGroups];
+        }
+
+        void vote(int[] keys, int[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                voteFor(groupOf(keys[i]), values[i]);
+            }
+        }
+
+        void voteAndIndex(int[] keys, int[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int group = groupOf(keys[i]);
+                keys[i] = group;
+                voteFor(group, values[i]);
+            }
+        }
+
+        void verify(int[] keys, int[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int group = groupOf(keys[i]);
+                if (values[i] == candidates[group]) {
+                    frequencies[group]++;
+                }
+            }
+        }
+
+        void verifyIndexed(int[] groups, int[] values, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int group = groups[i];
+                if (values[i] == candidates[group]) {
+                    frequencies[group]++;
+                }
+            }
+        }
+
+        private void voteFor(int group, int value) {
+            totals[group]++;
+            if (votes[group] == 0) {
+                candidates[group] = value;
+                votes[group] = 1;
+            } else if (candidates[group] == value) {
+                votes[group]++;
+            } else {
+                votes[group]--;
+            }
+        }
+
+        private int groupOf(int key) {
+            int slot = IntCountMap.hash(key) & mask;
+            while (slots[slot] != 0) {
+                int group = slots[slot] - 1;
+                if (groupKeys[group] == key) {
+                    return group;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            int group = size++;
+            if (group == groupKeys.length) {
+                int capacity = groupKeys.length * 2;
+                groupKeys = Arrays.copyOf(groupKeys, capacity);
+                candidates = Arrays.copyOf(candidates, capacity);
+                votes = Arrays.copyOf(votes, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            groupKeys[group] = key;
+            slots[slot] = group + 1;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return group;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            mask = slots.length - 1;
+            for (int group = 0; group < size; group++) {
+                int slot = IntCountMap.hash(groupKeys[group]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = group + 1;
+            }
+        }
+    }
+
+    /**
+     * Majority results keyed by group, with keys in ascending order.
+     */
+    public static final class GroupedResult {
+        private final int[] keys;
+        private final BoyerMooreMajorityVote.MajorityResult[] results;
+
+        private GroupedResult(int[] keys, BoyerMooreMajorityVote.MajorityResult[] results) {
+            this.keys = keys;
+            this.results = results;
+        }
+
+        static GroupedResult of(KeyTable[] tables) {
+            int groups = 0;
+            for (KeyTable table : tables) {
+                groups += table.size;
+            }
+
+            // Sort (key, table, group) triples by key; the key sits in the high
+            // bits so the signed long order is the signed key order.
+            long[] order = new long[groups];
+            int[] tableOf = new int[groups];
+            int[] groupOf = new int[groups];
+            int next = 0;
+            for (int t = 0; t < tables.length; t++) {
+                for (int g = 0; g < tables[t].size; g++) {
+                    tableOf[next] = t;
+                    groupOf[next] = g;
+                    order[next] = ((long) tables[t].groupKeys[g] << 32) | next;
+                    next++;
+                }
+            }
+            Arrays.sort(order);
+
+            int[] keys = new int[groups];
+            BoyerMooreMajorityVote.MajorityResult[] results = new BoyerMooreMajorityVote.MajorityResult[groups];
+            for (int i = 0; i < groups; i++) {
+                int entry = (int) order[i];
+                KeyTable table = tables[tableOf[entry]];
+                int g = groupOf[entry];
+                keys[i] = table.groupKeys[g];
+                results[i] = new BoyerMooreMajorityVote.MajorityResult(table.candidates[g],
+                        table.frequencies[g], table.totals[g], table.frequencies[g] > table.totals[g] / 2);
+            }
+            return new GroupedResult(keys, results);
+        }
+
+        public int size() {
+            return keys.length;
+        }
+
+        public int keyAt(int index) {
+            return keys[index];
+        }
+
+        public BoyerMooreMajorityVote.MajorityResult resultAt(int index) {
+            return results[index];
+        }
+
+        /**
+         * Returns the result for key, or null if the key did not occur.
+         */
+        public BoyerMooreMajorityVote.MajorityResult get(int key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? results[index] : null;
+        }
+
+        public int[] keys() {
+            return keys.clone();
+        }
+    }
+}
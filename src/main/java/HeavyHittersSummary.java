@@ -0,0 +1,128 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Misra-Gries counters of one shard (at most k-1 of them) plus the number of
+ * values seen. Merging adds counters key by key and then subtracts the k-th
+ * largest count, which keeps the n/k error bound of the combined summary.
+ */
+public final class HeavyHittersSummary {
+
+    static final byte TAG = 'M';
+
+    public final int k;
+    public final int[] keys;
+    public final long[] counts;
+    public final long total;
+
+    public HeavyHittersSummary(int k, int[] keys, long[] counts, long total) {
+        if (k < 2 || keys.length != counts.length || keys.length > k - 1) {
+            throw new IllegalArgumentException("Invalid summary for k=" + k + " with " + keys.length + " counters");
+        }
+        this.k = k;
+        this.keys = keys;
+        this.counts = counts;
+        this.total = total;
+    }
+
+    public static HeavyHittersSummary of(MisraGriesHeavyHitters counters) {
+        return new HeavyHittersSummary(counters.getK(), counters.candidates(), counters.candidateCounts(),
+                counters.getSeen());
+    }
+
+    public static HeavyHittersSummary merge(HeavyHittersSummary... summaries) {
+        if (summaries.length == 0) {
+            throw new IllegalArgumentException("Nothing to merge");
+        }
+        int k = summaries[0].k;
+        long total = 0;
+        IntCountMap combined = new IntCountMap(k * summaries.length);
+        for (HeavyHittersSummary summary : summaries) {
+            if (summary.k != k) {
+                throw new IllegalArgumentException("Cannot merge summaries with k=" + k + " and k=" + summary.k);
+            }
+            for (int i = 0; i < summary.keys.length; i++) {
+                combined.add(summary.keys[i], summary.counts[i]);
+            }
+            total += summary.total;
+        }
+
+        int[] keys = new int[combined.size()];
+        long[] counts = new long[combined.size()];
+        int[] filled = {0};
+        combined.forEach((key, count) -> {
+            keys[filled[0]] = key;
+            counts[filled[0]] = count;
+            filled[0]++;
+        });
+
+        long cut = 0;
+        if (counts.length > k - 1) {
+            long[] sorted = counts.clone();
+            Arrays.sort(sorted);
+            cut = sorted[sorted.length - k];
+        }
+
+        int kept = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] > cut) {
+                keys[kept] = keys[i];
+                counts[kept] = counts[i] - cut;
+                kept++;
+            }
+        }
+        return new HeavyHittersSummary(k, Arrays.copyOf(keys, kept), Arrays.copyOf(counts, kept), total);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(TAG);
+        out.writeInt(k);
+        out.writeLong(total);
+        out.writeInt(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            out.writeInt(keys[i]);
+            out.writeLong(counts[i]);
+        }
+    }
+
+    public static HeavyHittersSummary readFrom(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        if (tag != TAG) {
+            throw new IOException("Expected heavy-hitters summary tag " + TAG + ", got " + tag);
+        }
+        int k = in.readInt();
+        long total = in.readLong();
+        int size = in.readInt();
+        if (k < 2 || size < 0 || size > k - 1) {
+            throw new IOException("Corrupt heavy-hitters summary: k=" + k + ", size=" + size);
+        }
+        int[] keys = new int[size];
+        long[] counts = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = in.readInt();
+            counts[i] = in.readLong();
+        }
+        return new HeavyHittersSummary(k, keys, counts, total);
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static HeavyHittersSummary fromBytes(byte[] bytes) throws IOException {
+        return readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,137 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing int -> count map with linear probing. A count of zero marks
+ * an empty bucket, so keys whose count drops to zero are removed (with
+ * backward-shift deletion, no tombstones). No boxing, no per-entry objects.
+ */
+final class IntCountMap {
+
+    private int[] keys;
+    private long[] counts;
+    private int mask;
+    private int size;
+
+    IntCountMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        this.keys = new int[capacity];
+        this.counts = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    long get(int key) {
+        int bucket = hash(key) & mask;
+        while (counts[bucket] != 0) {
+            if (keys[bucket] == key) {
+                return counts[bucket];
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds delta to the count of key and returns the new count. A count that
+     * reaches zero removes the key; negative counts are not allowed.
+     */
+    long add(int key, long delta) {
+        int bucket = hash(key) & mask;
+        while (counts[bucket] != 0) {
+            if (keys[bucket] == key) {
+                long updated = counts[bucket] + delta;
+                if (updated < 0) {
+                    throw new IllegalStateException("Count of " + key + " would become negative");
+                }
+                if (updated == 0) {
+                    remove(bucket);
+                } else {
+                    counts[bucket] = updated;
+                }
+                return updated;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+
+        if (delta < 0) {
+            throw new IllegalStateException("Count of " + key + " would become negative");
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[bucket] = key;
+        counts[bucket] = delta;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return delta;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    /**
+     * Visits every (key, count) entry in bucket order.
+     */
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (counts[i] != 0) {
+                visitor.visit(keys[i], counts[i]);
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(int key, long count);
+    }
+
+    private void remove(int bucket) {
+        int hole = bucket;
+        int probe = bucket;
+        while (true) {
+            probe = (probe + 1) & mask;
+            if (counts[probe] == 0) {
+                break;
+            }
+            int home = hash(keys[probe]) & mask;
+            boolean movable = hole <= probe
+                    ? home <= hole || home > probe
+                    : home <= hole && home > probe;
+            if (movable) {
+                keys[hole] = keys[probe];
+                counts[hole] = counts[probe];
+                hole = probe;
+            }
+        }
+        counts[hole] = 0;
+        size--;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = new int[oldKeys.length * 2];
+        counts = new long[oldCounts.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int bucket = hash(oldKeys[i]) & mask;
+                while (counts[bucket] != 0) {
+                    bucket = (bucket + 1) & mask;
+                }
+                keys[bucket] = oldKeys[i];
+                counts[bucket] = oldCounts[i];
+            }
+        }
+    }
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
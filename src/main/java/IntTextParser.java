@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses decimal ints from text (with optional sign) straight from bytes.
+ * Input is read through a reusable buffer and parsed values are handed over
+ * in reusable int batches, so no String or object is created per number.
+ *
+ * The only delimiters are ',', ' ', '\t', '\n' and '\r'; runs of them are
+ * allowed. Any other byte is rejected with a NumberFormatException rather
+ * than silently splitting a value, so "12.5", "1e3", "0x1F" or a quoted
+ * field fail instead of turning into several ints. A sign is only valid at
+ * the start of a number: a sign directly after digits or after another sign
+ * (as in "12-5" or "+-3") is rejected too. A bare sign between delimiters, as
+ * some exports write for a missing value, is skipped.
+ */
+public class IntTextParser {
+
+    public interface IntChunkSink {
+        void accept(int[] values, int off, int len);
+    }
+
+    static final int READ_BUFFER_SIZE = 1 << 16;
+    static final int BATCH_SIZE = 1 << 13;
+
+    private final byte[] bytes = new byte[READ_BUFFER_SIZE];
+    private final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    private final int[] batch = new int[BATCH_SIZE];
+
+    private int batchSize;
+    private long value;
+    private boolean negative;
+    private boolean inNumber;
+    private boolean sawDigit;
+    private long bytesRead;
+    private long valuesParsed;
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getValuesParsed() {
+        return valuesParsed;
+    }
+
+    public void parse(InputStream in, IntChunkSink sink) throws IOException {
+        resetState();
+        int read;
+        while ((read = in.read(bytes, 0, bytes.length)) != -1) {
+            consume(read, sink);
+        }
+        finish(sink);
+    }
+
+    public void parse(ReadableByteChannel channel, IntChunkSink sink) throws IOException {
+        resetState();
+        while (true) {
+            byteBuffer.clear();
+            int read = channel.read(byteBuffer);
+            if (read == -1) {
+                break;
+            }
+            consume(read, sink);
+        }
+        finish(sink);
+    }
+
+    /**
+     * Two-pass vote over a text file: the file is parsed once into a
+     * StreamingVote and a second time into its verifier.
+     */
+    public BoyerMooreMajorityVote.Verifier vote(Path file) throws IOException {
+        BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            parse(channel, vote::accept);
+        }
+
+        BoyerMooreMajorityVote.Verifier verifier = vote.verifier();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            parse(channel, verifier::accept);
+        }
+        return verifier;
+    }
+
+    private void consume(int length, IntChunkSink sink) {
+        bytesRead += length;
+        long v = value;
+        boolean neg = negative;
+        boolean number = inNumber;
+        boolean digit = sawDigit;
+
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i];
+            int d = b - '0';
+            if (d >= 0 && d <= 9) {
+                v = v * 10 + d;
+                if (v > (long) Integer.MAX_VALUE + 1) {
+                    throw new NumberFormatException("Value out of int range at byte " + (bytesRead - length + i));
+                }
+                number = true;
+                digit = true;
+            } else if (b == '-' || b == '+') {
+                if (number) {
+                    throw new NumberFormatException("Unexpected sign inside a number at byte "
+                            + (bytesRead - length + i));
+                }
+                neg = b == '-';
+                number = true;
+            } else if (b == ',' || b == '\n' || b == ' ' || b == '\r' || b == '\t') {
+                if (number) {
+                    // A sign followed by a delimiter is a missing value, not a number.
+                    if (digit) {
+                        emit(neg ? -v : v, sink);
+                    }
+                    v = 0;
+                    neg = false;
+                    number = false;
+                    digit = false;
+                }
+            } else {
+                throw new NumberFormatException(String.format("Unexpected byte 0x%02x at byte %d",
+                        b & 0xff, bytesRead - length + i));
+            }
+        }
+
+        value = v;
+        negative = neg;
+        inNumber = number;
+        sawDigit = digit;
+    }
+
+    private void finish(IntChunkSink sink) {
+        if (inNumber && sawDigit) {
+            emit(negative ? -value : value, sink);
+        }
+        if (batchSize > 0) {
+            sink.accept(batch, 0, batchSize);
+            batchSize = 0;
+        }
+    }
+
+    private void emit(long parsed, IntChunkSink sink) {
+        if (parsed > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value " + parsed + " out of int range");
+        }
+        batch[batchSize++] = (int) parsed;
+        valuesParsed++;
+        if (batchSize == BATCH_SIZE) {
+            sink.accept(batch, 0, batchSize);
+            batchSize = 0;
+        }
+    }
+
+    private void resetState() {
+        batchSize = 0;
+        value = 0;
+        negative = false;
+        inNumber = false;
+        sawDigit = false;
+        bytesRead = 0;
+        valuesParsed = 0;
+    }
+}
@@ -0,0 +1,36 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel for counting occurrences of a value. Only loaded through
+ * {@link VectorizedFrequency}, which falls back to a scalar loop when the
+ * jdk.incubator.vector module is not present at runtime.
+ */
+final class IntVectorKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private IntVectorKernel() {
+    }
+
+    static int count(int[] nums, int from, int to, int candidate) {
+        IntVector ones = IntVector.broadcast(SPECIES, 1);
+        IntVector acc = IntVector.zero(SPECIES);
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector v = IntVector.fromArray(SPECIES, nums, i);
+            acc = acc.add(ones, v.eq(candidate));
+        }
+
+        int count = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < to; i++) {
+            if (nums[i] == candidate) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
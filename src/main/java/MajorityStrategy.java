@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * One way of answering findMajorityElementDetailed. Shape-specific
+ * strategies check their precondition during the scan and return null when
+ * the input does not qualify, so the caller can fall back.
+ */
+public interface MajorityStrategy {
+
+    String name();
+
+    /**
+     * Majority of nums, or null when this strategy does not apply to nums.
+     */
+    BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums);
+
+    /** Two-pass Boyer-Moore on the calling thread. */
+    final class Sequential implements MajorityStrategy {
+        private final BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(false);
+
+        @Override
+        public String name() {
+            return "sequential";
+        }
+
+        @Override
+        public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) {
+            return bm.findMajorityElementDetailed(nums);
+        }
+    }
+
+    /** Fork-join Boyer-Moore; arrays below PARALLEL_THRESHOLD still run sequentially. */
+    final class Parallel implements MajorityStrategy {
+        private final BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(false);
+
+        @Override
+        public String name() {
+            return "parallel";
+        }
+
+        @Override
+        public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) {
+            return bm.findMajorityElementDetailedParallel(nums);
+        }
+    }
+
+    /**
+     * Branch-free counting over a small value range: one pass for min/max,
+     * one pass to count. The count array is reused, so an instance must not
+     * be shared between threads.
+     */
+    final class Counting implements MajorityStrategy {
+        private final int[] counts;
+
+        public Counting(int maxRange) {
+            this.counts = new int[maxRange];
+        }
+
+        @Override
+        public String name() {
+            return "counting";
+        }
+
+        @Override
+        public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) {
+            if (nums == null || nums.length == 0) {
+                return null;
+            }
+
+            int min = nums[0];
+            int max = nums[0];
+            for (int num : nums) {
+                min = Math.min(min, num);
+                max = Math.max(max, num);
+            }
+            long range = (long) max - min + 1;
+            if (range > counts.length) {
+                return null;
+            }
+
+            int width = (int) range;
+            Arrays.fill(counts, 0, width, 0);
+            for (int num : nums) {
+                counts[num - min]++;
+            }
+
+            int best = 0;
+            for (int i = 1; i < width; i++) {
+                if (counts[i] > counts[best]) {
+                    best = i;
+                }
+            }
+            return new BoyerMooreMajorityVote.MajorityResult(min + best, counts[best], nums.length,
+                    counts[best] > nums.length / 2);
+        }
+    }
+
+    /**
+     * For sorted input the only possible majority is the middle element; its
+     * frequency comes from two binary searches after a sortedness check.
+     */
+    final class Sorted implements MajorityStrategy {
+        @Override
+        public String name() {
+            return "sorted";
+        }
+
+        @Override
+        public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) {
+            if (nums == null || nums.length == 0) {
+                return null;
+            }
+            for (int i = 1; i < nums.length; i++) {
+                if (nums[i] < nums[i - 1]) {
+                    return null;
+                }
+            }
+
+            int candidate = nums[nums.length / 2];
+            int frequency = bound(nums, candidate, true) - bound(nums, candidate, false);
+            return new BoyerMooreMajorityVote.MajorityResult(candidate, frequency, nums.length,
+                    frequency > nums.length / 2);
+        }
+
+        // First index whose value is > key (upper) or >= key (lower).
+        private static int bound(int[] sorted, int key, boolean upper) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < key || (upper && sorted[mid] == key)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
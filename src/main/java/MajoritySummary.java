@@ -0,0 +1,87 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Boyer-Moore partial state of one shard: (candidate, count) plus the number
+ * of values seen. Serializes to {@link #BYTES} bytes; summaries of disjoint
+ * shards merge into a summary whose candidate is the only possible majority
+ * of the combined data, which a {@link FrequencyReport} round then verifies.
+ */
+public final class MajoritySummary {
+
+    static final byte TAG = 'B';
+    public static final int BYTES = 1 + Integer.BYTES + 2 * Long.BYTES;
+
+    public final int candidate;
+    public final long count;
+    public final long total;
+
+    public MajoritySummary(int candidate, long count, long total) {
+        if (count < 0 || total < count) {
+            throw new IllegalArgumentException("Invalid summary: count " + count + ", total " + total);
+        }
+        this.candidate = candidate;
+        this.count = count;
+        this.total = total;
+    }
+
+    public static MajoritySummary of(BoyerMooreMajorityVote.StreamingVote vote) {
+        return new MajoritySummary(vote.currentCandidate(), vote.currentCount(), vote.getSeen());
+    }
+
+    public static MajoritySummary of(int[] nums, int off, int len) {
+        BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+        vote.accept(nums, off, len);
+        return of(vote);
+    }
+
+    public static MajoritySummary merge(MajoritySummary... summaries) {
+        long[] merged = {0, 0};
+        long total = 0;
+        for (MajoritySummary summary : summaries) {
+            merged = BoyerMooreMajorityVote.mergeCandidates(merged, new long[]{summary.candidate, summary.count});
+            total += summary.total;
+        }
+        return new MajoritySummary((int) merged[0], merged[1], total);
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(TAG);
+        out.writeInt(candidate);
+        out.writeLong(count);
+        out.writeLong(total);
+    }
+
+    public static MajoritySummary readFrom(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        if (tag != TAG) {
+            throw new IOException("Expected majority summary tag " + TAG + ", got " + tag);
+        }
+        return new MajoritySummary(in.readInt(), in.readLong(), in.readLong());
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BYTES);
+        try {
+            writeTo(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static MajoritySummary fromBytes(byte[] bytes) throws IOException {
+        return readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MajoritySummary(candidate=%d, count=%d, total=%d)", candidate, count, total);
+    }
+}
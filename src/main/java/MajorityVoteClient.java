@@ -0,0 +1,85 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Blocking client for {@link MajorityVoteServer}: one request in flight per
+ * connection. Not thread-safe; give each thread its own client.
+ */
+public final class MajorityVoteClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MajorityVoteServer.BUFFER_BYTES);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MajorityVoteServer.RESPONSE_BYTES);
+    private int nextId;
+
+    private MajorityVoteClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static MajorityVoteClient connect(SocketAddress address) throws IOException {
+        SocketChannel channel = address instanceof UnixDomainSocketAddress
+                ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                : SocketChannel.open();
+        try {
+            channel.connect(address);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new MajorityVoteClient(channel);
+    }
+
+    public int findMajorityElement(int[] nums) throws IOException {
+        BoyerMooreMajorityVote.MajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(int[] nums) throws IOException {
+        int length = nums == null ? 0 : nums.length;
+        int id = nextId++;
+
+        out.clear();
+        out.putInt(id).putInt(length);
+        int sent = 0;
+        while (true) {
+            int batch = Math.min(out.remaining() / Integer.BYTES, length - sent);
+            if (batch > 0) {
+                out.asIntBuffer().put(nums, sent, batch);
+                out.position(out.position() + batch * Integer.BYTES);
+                sent += batch;
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            if (sent == length) {
+                break;
+            }
+            out.clear();
+        }
+
+        in.clear();
+        while (in.hasRemaining()) {
+            if (channel.read(in) < 0) {
+                throw new EOFException("Server closed the connection");
+            }
+        }
+        in.flip();
+        int responseId = in.getInt();
+        if (responseId != id) {
+            throw new IOException("Expected response " + id + " but got " + responseId);
+        }
+        return new BoyerMooreMajorityVote.MajorityResult(in.getInt(), in.getInt(), in.getInt(), in.get() != 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
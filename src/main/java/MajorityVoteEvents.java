@@ -0,0 +1,150 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder events for the phases of BoyerMooreMajorityVote. Each event's
+ * duration is the time spent in that phase.
+ *
+ * Loading an Event subclass registers it with Flight Recorder, which sets up
+ * JFR's metadata (hundreds of milliseconds on first use). The begin methods
+ * therefore return null until Flight Recorder has been initialized by a
+ * recording or by -XX:StartFlightRecording, and never load the event classes
+ * before that. After that they use the usual JFR idiom: create the event and
+ * return it only if isEnabled(). A disabled event costs one static flag read,
+ * plus an isEnabled() check on an object that escape analysis removes once
+ * the caller is compiled. Only reached through {@link PhaseEvents}, which
+ * keeps jdk.jfr optional.
+ */
+final class MajorityVoteEvents {
+
+    private MajorityVoteEvents() {
+    }
+
+    static Object beginCandidate() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        CandidateEvent event = new CandidateEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static Object beginVerify() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        VerifyEvent event = new VerifyEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static Object beginFrequency() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        FrequencyEvent event = new FrequencyEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void commitCandidate(Object started, int size, int candidate, int count) {
+        CandidateEvent event = (CandidateEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.candidate = candidate;
+            event.count = count;
+            event.commit();
+        }
+    }
+
+    static void commitVerify(Object started, int size, int candidate, boolean majority, int stoppedAt) {
+        VerifyEvent event = (VerifyEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.candidate = candidate;
+            event.majority = majority;
+            event.stoppedAt = stoppedAt;
+            event.commit();
+        }
+    }
+
+    static void commitFrequency(Object started, int size, int candidate, int frequency) {
+        FrequencyEvent event = (FrequencyEvent) started;
+        event.end();
+        if (event.shouldCommit()) {
+            event.size = size;
+            event.candidate = candidate;
+            event.frequency = frequency;
+            event.commit();
+        }
+    }
+
+    @Name("majority.FindCandidate")
+    @Label("Find Candidate")
+    @Category({"Majority Vote"})
+    @Description("Boyer-Moore candidate pass over an int[]")
+    @StackTrace(false)
+    static final class CandidateEvent extends Event {
+        @Label("Input Size")
+        int size;
+
+        @Label("Candidate")
+        int candidate;
+
+        @Label("Final Count")
+        @Description("Surviving vote count of the candidate after the pass")
+        int count;
+    }
+
+    @Name("majority.VerifyCandidate")
+    @Label("Verify Candidate")
+    @Category({"Majority Vote"})
+    @Description("Early-terminating check that the candidate occurs more than size / 2 times")
+    @StackTrace(false)
+    static final class VerifyEvent extends Event {
+        @Label("Input Size")
+        int size;
+
+        @Label("Candidate")
+        int candidate;
+
+        @Label("Majority")
+        boolean majority;
+
+        @Label("Early Termination Position")
+        @Description("Elements scanned before the outcome was decided; block-granular on the vectorised path")
+        int stoppedAt;
+    }
+
+    @Name("majority.CountFrequency")
+    @Label("Count Frequency")
+    @Category({"Majority Vote"})
+    @Description("Full frequency count of the candidate for detailed results")
+    @StackTrace(false)
+    static final class FrequencyEvent extends Event {
+        @Label("Input Size")
+        int size;
+
+        @Label("Candidate")
+        int candidate;
+
+        @Label("Frequency")
+        int frequency;
+    }
+}
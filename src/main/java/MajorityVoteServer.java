@@ -0,0 +1,471 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Long-running majority vote service over a loopback TCP or Unix domain
+ * socket, so that many local processes share one warmed-up JVM.
+ *
+ * Wire format (big-endian): a request is {@code int id, int count,
+ * count x int}; a response is {@code int id, int candidate, int frequency,
+ * int totalElements, byte isMajority}. Clients may pipeline requests;
+ * responses carry the request id and can arrive out of order.
+ *
+ * One selector thread does all socket I/O through per-connection direct
+ * buffers that live as long as the connection. Every request completed in
+ * one select round is handed to the worker pool as a single
+ * {@link BatchMajorityVote} pass, so bursts of small requests from many
+ * clients share one task instead of one task each.
+ *
+ * Request arrays grow as their data arrives rather than being sized from the
+ * header, and the ints held across all connections (arriving, queued and in
+ * flight) are capped at MAX_HELD_INTS. A connection that would go over
+ * either limit, sends a malformed frame or hits an unexpected error is
+ * closed; the service keeps running for everyone else. A connection with
+ * MAX_UNANSWERED requests it has not yet been sent answers for is not read
+ * from until its client catches up, so a client that pipelines without
+ * reading back cannot queue responses without bound.
+ *
+ * Batches that fail are counted in getBatchesFailed() and their connections
+ * closed. If the selector thread itself dies, close() rethrows the cause.
+ */
+public final class MajorityVoteServer implements Closeable {
+
+    public static final int RESPONSE_BYTES = 4 * Integer.BYTES + 1;
+    static final int MAX_REQUEST_INTS = 1 << 24;
+    static final int MAX_HELD_INTS = 1 << 25;
+    static final int MAX_UNANSWERED = 1024;
+    static final int BUFFER_BYTES = 1 << 16;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final BatchMajorityVote batch;
+    private final ForkJoinPool pool;
+    private final Path socketFile;
+    private final Thread selectorThread;
+    private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+    private List<Request> pending = new ArrayList<>();
+    // Selector thread only: ints currently held in request arrays.
+    private long heldInts;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+
+    private final LongAdder requestsServed = new LongAdder();
+    private final LongAdder batchesRun = new LongAdder();
+    private final LongAdder batchesFailed = new LongAdder();
+
+    private MajorityVoteServer(SocketAddress address, ForkJoinPool pool) throws IOException {
+        this.pool = pool;
+        this.batch = new BatchMajorityVote(pool);
+        if (address instanceof UnixDomainSocketAddress) {
+            this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            this.socketFile = ((UnixDomainSocketAddress) address).getPath();
+        } else {
+            this.server = ServerSocketChannel.open();
+            this.socketFile = null;
+        }
+        this.server.bind(address);
+        this.server.configureBlocking(false);
+        this.selector = Selector.open();
+        this.server.register(selector, SelectionKey.OP_ACCEPT);
+
+        this.selectorThread = new Thread(this::run, "majority-vote-server");
+        this.selectorThread.setDaemon(true);
+    }
+
+    /**
+     * Binds to address (an InetSocketAddress, normally loopback, or a
+     * UnixDomainSocketAddress) and starts serving on a background thread.
+     */
+    public static MajorityVoteServer start(SocketAddress address) throws IOException {
+        return start(address, ForkJoinPool.commonPool());
+    }
+
+    public static MajorityVoteServer start(SocketAddress address, ForkJoinPool pool) throws IOException {
+        MajorityVoteServer server = new MajorityVoteServer(address, pool);
+        server.selectorThread.start();
+        return server;
+    }
+
+    /**
+     * The bound address; for TCP port 0 this carries the chosen port.
+     */
+    public SocketAddress getLocalAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    public long getRequestsServed() {
+        return requestsServed.sum();
+    }
+
+    public long getBatchesRun() {
+        return batchesRun.sum();
+    }
+
+    public long getBatchesFailed() {
+        return batchesFailed.sum();
+    }
+
+    /**
+     * Stops serving and waits for the selector thread. Throws the I/O error
+     * that stopped the selector thread early, if there was one.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (socketFile != null) {
+            Files.deleteIfExists(socketFile);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                drainCompletions();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        }
+                    } catch (IOException | RuntimeException | Error e) {
+                        // Including OutOfMemoryError: drop this connection, keep serving.
+                        closeQuietly(key);
+                    }
+                }
+
+                dispatchPending();
+            }
+        } catch (IOException e) {
+            if (running) {
+                failure = e;
+            }
+        } catch (ClosedSelectorException e) {
+            if (running) {
+                failure = new IOException("Selector closed unexpectedly", e);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key);
+            }
+            try {
+                selector.close();
+                server.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway.
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+    }
+
+    private void dispatchPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Request> requests = pending;
+        pending = new ArrayList<>();
+        try {
+            pool.execute(() -> runBatch(requests));
+        } catch (RuntimeException e) {
+            batchesFailed.increment();
+            complete(requests, null);
+        }
+    }
+
+    private void runBatch(List<Request> requests) {
+        BoyerMooreMajorityVote.MajorityResult[] results = null;
+        try {
+            int[][] arrays = new int[requests.size()][];
+            for (int i = 0; i < arrays.length; i++) {
+                arrays[i] = requests.get(i).values;
+            }
+            results = batch.findMajorityElements(arrays);
+            requestsServed.add(results.length);
+            batchesRun.increment();
+        } catch (RuntimeException | Error e) {
+            batchesFailed.increment();
+        } finally {
+            complete(requests, results);
+        }
+    }
+
+    /**
+     * Hands results back to the selector thread. Null results mean the batch
+     * failed; those connections are dropped so no client waits forever.
+     */
+    private void complete(List<Request> requests, BoyerMooreMajorityVote.MajorityResult[] results) {
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            completions.add(new Completion(request.connection, request.id,
+                    results == null ? null : results[i], request.values.length));
+        }
+        selector.wakeup();
+    }
+
+    private void drainCompletions() {
+        Completion completion;
+        while ((completion = completions.poll()) != null) {
+            heldInts -= completion.size;
+            Connection connection = completion.connection;
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            if (completion.result == null) {
+                closeQuietly(connection.key);
+                continue;
+            }
+            connection.outbox.add(completion);
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                closeQuietly(connection.key);
+            }
+        }
+    }
+
+    private void closeQuietly(SelectionKey key) {
+        if (key.attachment() instanceof Connection) {
+            ((Connection) key.attachment()).releasePartial();
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // Peer is gone either way.
+        }
+    }
+
+    private static final class Request {
+        final Connection connection;
+        final int id;
+        final int[] values;
+
+        Request(Connection connection, int id, int[] values) {
+            this.connection = connection;
+            this.id = id;
+            this.values = values;
+        }
+    }
+
+    private static final class Completion {
+        final Connection connection;
+        final int id;
+        final BoyerMooreMajorityVote.MajorityResult result;
+        final int size;
+
+        Completion(Connection connection, int id, BoyerMooreMajorityVote.MajorityResult result, int size) {
+            this.connection = connection;
+            this.id = id;
+            this.result = result;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Per-connection state, touched only by the selector thread. A request
+     * larger than the read buffer is assembled across several reads.
+     */
+    private final class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        final ArrayDeque<Completion> outbox = new ArrayDeque<>();
+
+        int requestId;
+        int expected;
+        int[] values;
+        int filled;
+        // Requests parsed whose responses are not yet in writeBuffer.
+        int unanswered;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            while (unanswered < MAX_UNANSWERED) {
+                int read = channel.read(readBuffer);
+                if (read < 0) {
+                    closeQuietly(key);
+                    return;
+                }
+                if (read == 0) {
+                    break;
+                }
+                parseBuffered();
+            }
+            updateInterest();
+        }
+
+        private void parseBuffered() throws IOException {
+            readBuffer.flip();
+            parse();
+            readBuffer.compact();
+        }
+
+        private void parse() throws IOException {
+            while (true) {
+                if (values == null) {
+                    if (unanswered >= MAX_UNANSWERED || readBuffer.remaining() < 2 * Integer.BYTES) {
+                        return;
+                    }
+                    requestId = readBuffer.getInt();
+                    int count = readBuffer.getInt();
+                    if (count < 0 || count > MAX_REQUEST_INTS) {
+                        throw new IOException("Bad request length " + count);
+                    }
+                    expected = count;
+                    values = new int[0];
+                    filled = 0;
+                }
+
+                if (filled == values.length && filled < expected) {
+                    grow();
+                }
+                int available = Math.min(readBuffer.remaining() / Integer.BYTES, values.length - filled);
+                if (available > 0) {
+                    IntBuffer ints = readBuffer.asIntBuffer();
+                    ints.get(values, filled, available);
+                    readBuffer.position(readBuffer.position() + available * Integer.BYTES);
+                    filled += available;
+                }
+                if (filled < expected) {
+                    if (readBuffer.remaining() < Integer.BYTES) {
+                        return;
+                    }
+                    continue;
+                }
+
+                pending.add(new Request(this, requestId, values));
+                unanswered++;
+                values = null;
+            }
+        }
+
+        /**
+         * Grows the request array toward the announced length, charging the
+         * growth to the server-wide budget, so a header alone costs nothing.
+         */
+        private void grow() throws IOException {
+            int capacity = (int) Math.min(expected, Math.max(BUFFER_BYTES / Integer.BYTES, 2L * values.length));
+            if (heldInts + capacity - values.length > MAX_HELD_INTS) {
+                throw new IOException("Server is holding too many request ints");
+            }
+            heldInts += capacity - values.length;
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        void releasePartial() {
+            if (values != null) {
+                heldInts -= values.length;
+                values = null;
+            }
+        }
+
+        void flush() throws IOException {
+            while (true) {
+                while (!outbox.isEmpty() && writeBuffer.remaining() >= RESPONSE_BYTES) {
+                    Completion completion = outbox.poll();
+                    BoyerMooreMajorityVote.MajorityResult result = completion.result;
+                    writeBuffer.putInt(completion.id)
+                            .putInt(result.candidate)
+                            .putInt(result.frequency)
+                            .putInt(result.totalElements)
+                            .put((byte) (result.isMajority ? 1 : 0));
+                    unanswered--;
+                }
+                writeBuffer.flip();
+                int written = channel.write(writeBuffer);
+                writeBuffer.compact();
+                if ((writeBuffer.position() == 0 && outbox.isEmpty()) || written == 0) {
+                    break;
+                }
+            }
+            // Requests left in readBuffer while reading was paused are not
+            // announced by the selector again, so pick them up here.
+            if (unanswered < MAX_UNANSWERED && readBuffer.position() > 0) {
+                parseBuffered();
+            }
+            updateInterest();
+        }
+
+        private void updateInterest() {
+            if (!key.isValid()) {
+                return;
+            }
+            int ops = unanswered < MAX_UNANSWERED ? SelectionKey.OP_READ : 0;
+            if (writeBuffer.position() > 0 || !outbox.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            key.interestOps(ops);
+        }
+    }
+
+    /**
+     * Convenience for command-line use: a number is a loopback TCP port,
+     * anything else is a Unix domain socket path.
+     */
+    static SocketAddress parseAddress(String spec) {
+        if (spec.chars().allMatch(Character::isDigit)) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(spec));
+        }
+        return UnixDomainSocketAddress.of(spec);
+    }
+}
@@ -0,0 +1,50 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Two-pass Boyer-Moore over a binary file of 4-byte ints. The file is mapped
+ * window by window with FileChannel.map, and both passes read the mapped pages
+ * directly, so files far larger than the heap can be processed.
+ */
+public final class MappedFileMajority {
+
+    static final long WINDOW_BYTES = 1L << 28;
+
+    private MappedFileMajority() {
+    }
+
+    /**
+     * Returns the verifier of the second pass. Its frequency and element count
+     * are longs, so it also covers files with more than Integer.MAX_VALUE ints.
+     */
+    public static BoyerMooreMajorityVote.Verifier findMajority(Path file, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % Integer.BYTES != 0) {
+                throw new IllegalArgumentException("File size " + size + " is not a multiple of " + Integer.BYTES);
+            }
+
+            BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+            for (long offset = 0; offset < size; offset += WINDOW_BYTES) {
+                vote.accept(window(channel, offset, size, order));
+            }
+
+            BoyerMooreMajorityVote.Verifier verifier = vote.verifier();
+            for (long offset = 0; offset < size; offset += WINDOW_BYTES) {
+                verifier.accept(window(channel, offset, size, order));
+            }
+            return verifier;
+        }
+    }
+
+    private static IntBuffer window(FileChannel channel, long offset, long size, ByteOrder order) throws IOException {
+        long length = Math.min(WINDOW_BYTES, size - offset);
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        return mapped.order(order).asIntBuffer();
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+
+/**
+ * Generalized Boyer-Moore (Misra-Gries) vote: finds every element that appears
+ * more than n/k times using k-1 counters. Counters live in primitive arrays
+ * with a small open-addressing index, so a pass is O(n) time and O(k) memory.
+ */
+public class MisraGriesHeavyHitters {
+
+    private final int k;
+    private final int[] keys;
+    private final long[] counts;
+    private final int[] index;
+    private final int indexMask;
+    private int size;
+    private long seen;
+
+    public MisraGriesHeavyHitters(int k) {
+        if (k < 2) {
+            throw new IllegalArgumentException("k must be at least 2, got " + k);
+        }
+        this.k = k;
+        this.keys = new int[k - 1];
+        this.counts = new long[k - 1];
+        int capacity = Integer.highestOneBit(Math.max(2, (k - 1) * 2) - 1) << 1;
+        this.index = new int[capacity];
+        this.indexMask = capacity - 1;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public HeavyHittersResult findHeavyHitters(int[] nums) {
+        reset();
+        if (nums == null || nums.length == 0) {
+            return new HeavyHittersResult(new int[0], new long[0], 0, k);
+        }
+
+        accept(nums, 0, nums.length);
+
+        long[] frequencies = new long[size];
+        for (int num : nums) {
+            int slot = find(num);
+            if (slot >= 0) {
+                frequencies[slot]++;
+            }
+        }
+
+        long threshold = nums.length / k;
+        int found = 0;
+        int[] elements = new int[size];
+        long[] elementFrequencies = new long[size];
+        for (int i = 0; i < size; i++) {
+            if (frequencies[i] > threshold) {
+                elements[found] = keys[i];
+                elementFrequencies[found] = frequencies[i];
+                found++;
+            }
+        }
+
+        return new HeavyHittersResult(Arrays.copyOf(elements, found),
+                Arrays.copyOf(elementFrequencies, found), nums.length, k);
+    }
+
+    /**
+     * Candidate pass over a range; may be called repeatedly on consecutive chunks.
+     */
+    public void accept(int[] nums, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++) {
+            accept(nums[i]);
+        }
+    }
+
+    public void accept(int value) {
+        seen++;
+        int slot = find(value);
+        if (slot >= 0) {
+            counts[slot]++;
+        } else if (size < keys.length) {
+            keys[size] = value;
+            counts[size] = 1;
+            size++;
+            insert(value, size - 1);
+        } else {
+            decrementAll();
+        }
+    }
+
+    /**
+     * Surviving candidates of the first pass, in slot order.
+     */
+    public int[] candidates() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    public long[] candidateCounts() {
+        return Arrays.copyOf(counts, size);
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    public void reset() {
+        size = 0;
+        seen = 0;
+        Arrays.fill(index, 0);
+    }
+
+    private void decrementAll() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long count = counts[i] - 1;
+            if (count > 0) {
+                keys[kept] = keys[i];
+                counts[kept] = count;
+                kept++;
+            }
+        }
+
+        if (kept != size) {
+            size = kept;
+            Arrays.fill(index, 0);
+            for (int i = 0; i < size; i++) {
+                insert(keys[i], i);
+            }
+        }
+    }
+
+    // Index entries hold slot + 1 so that 0 marks an empty bucket.
+    private int find(int key) {
+        int bucket = hash(key) & indexMask;
+        while (true) {
+            int entry = index[bucket];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            bucket = (bucket + 1) & indexMask;
+        }
+    }
+
+    private void insert(int key, int slot) {
+        int bucket = hash(key) & indexMask;
+        while (index[bucket] != 0) {
+            bucket = (bucket + 1) & indexMask;
+        }
+        index[bucket] = slot + 1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public static class HeavyHittersResult {
+        public final int[] elements;
+        public final long[] frequencies;
+        public final int totalElements;
+        public final int k;
+
+        public HeavyHittersResult(int[] elements, long[] frequencies, int totalElements, int k) {
+            this.elements = elements;
+            this.frequencies = frequencies;
+            this.totalElements = totalElements;
+            this.k = k;
+        }
+
+        @Override
+        public String toString() {
+            if (elements.length == 0) {
+                return String.format("No element appears more than %d/%d times", totalElements / k, totalElements);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Elements above n/%d (%d/%d):", k, totalElements / k, totalElements));
+            for (int i = 0; i < elements.length; i++) {
+                sb.append(String.format(" %d (appears %d times, %.1f%%)",
+                        elements[i], frequencies[i], frequencies[i] * 100.0 / totalElements));
+            }
+            return sb.toString();
+        }
+    }
+}
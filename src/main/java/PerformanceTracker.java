@@ -1,57 +1,207 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PerformanceTracker {
-    private long startTime;
-    private long endTime;
-    private Map<String, Long> metrics;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    // Hot counters are LongAdders so several threads can flush into one tracker;
+    // only custom keys go through the map.
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder arrayAccess = new LongAdder();
+    private final LongAdder assignments = new LongAdder();
+    private final Map<String, Long> customMetrics;
+
+    // Every timed call is recorded here. reset() keeps it so that benchmarks
+    // which reset counters between runs still get a full distribution.
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    // Optional allocation/GC accounting. The allocated-bytes counter is per
+    // thread, so a call must start and stop its timer on the same thread; GC
+    // counts are JVM-wide and include collections triggered by other threads.
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+    private static final List<GarbageCollectorMXBean> GC_BEANS =
+            ManagementFactory.getGarbageCollectorMXBeans();
+
+    private volatile boolean allocationTracking;
+    private long startAllocated;
+    private long startGcCount;
+    private long startGcTime;
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder gcCount = new LongAdder();
+    private final LongAdder gcTimeMs = new LongAdder();
 
     public PerformanceTracker() {
-        this.metrics = new HashMap<>();
+        this.customMetrics = new ConcurrentHashMap<>();
         reset();
     }
 
+    private static com.sun.management.ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return sunBean;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isAllocationTrackingSupported() {
+        return THREAD_BEAN != null;
+    }
+
+    /**
+     * Turns per-call allocated-bytes and GC count/time deltas on or off. Off by
+     * default; the MXBean reads cost a few hundred nanoseconds per call.
+     */
+    public void setAllocationTracking(boolean enabled) {
+        this.allocationTracking = enabled;
+    }
+
+    public boolean isAllocationTracking() {
+        return allocationTracking;
+    }
+
+    /** Bytes allocated by the current thread so far, or -1 if unsupported. */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
     public void startTimer() {
+        if (allocationTracking) {
+            startGcCount = totalGcCount();
+            startGcTime = totalGcTime();
+            startAllocated = currentThreadAllocatedBytes();
+        }
         startTime = System.nanoTime();
     }
 
     public void stopTimer() {
         endTime = System.nanoTime();
+        if (allocationTracking) {
+            long allocated = currentThreadAllocatedBytes();
+            if (allocated >= 0 && startAllocated >= 0) {
+                allocatedBytes.add(allocated - startAllocated);
+            }
+            gcCount.add(totalGcCount() - startGcCount);
+            gcTimeMs.add(totalGcTime() - startGcTime);
+        }
+        latencies.record(endTime - startTime);
+    }
+
+    private static long totalGcCount() {
+        long total = 0;
+        for (int i = 0; i < GC_BEANS.size(); i++) {
+            total += Math.max(0, GC_BEANS.get(i).getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long totalGcTime() {
+        long total = 0;
+        for (int i = 0; i < GC_BEANS.size(); i++) {
+            total += Math.max(0, GC_BEANS.get(i).getCollectionTime());
+        }
+        return total;
     }
 
     public long getElapsedTime() {
         return endTime - startTime;
     }
 
+    public LatencyHistogram getLatencyHistogram() {
+        return latencies;
+    }
+
+    public long getLatencyPercentile(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    public void mergeLatencies(PerformanceTracker other) {
+        latencies.merge(other.latencies);
+    }
+
+    public void resetLatencies() {
+        latencies.reset();
+    }
+
     public void incrementComparisons(long count) {
-        metrics.merge("comparisons", count, Long::sum);
+        comparisons.add(count);
     }
 
     public void incrementArrayAccess(long count) {
-        metrics.merge("arrayAccess", count, Long::sum);
+        arrayAccess.add(count);
     }
 
     public void incrementAssignments(long count) {
-        metrics.merge("assignments", count, Long::sum);
+        assignments.add(count);
     }
 
     public void incrementOperations(String operation, long count) {
-        metrics.merge(operation, count, Long::sum);
+        switch (operation) {
+            case "comparisons":
+                comparisons.add(count);
+                break;
+            case "arrayAccess":
+                arrayAccess.add(count);
+                break;
+            case "assignments":
+                assignments.add(count);
+                break;
+            default:
+                customMetrics.merge(operation, count, Long::sum);
+        }
     }
 
     public long getMetric(String metric) {
-        return metrics.getOrDefault(metric, 0L);
+        switch (metric) {
+            case "comparisons":
+                return comparisons.sum();
+            case "arrayAccess":
+                return arrayAccess.sum();
+            case "assignments":
+                return assignments.sum();
+            case "allocatedBytes":
+                return allocatedBytes.sum();
+            case "gcCount":
+                return gcCount.sum();
+            case "gcTimeMs":
+                return gcTimeMs.sum();
+            default:
+                return customMetrics.getOrDefault(metric, 0L);
+        }
     }
 
     public Map<String, Long> getAllMetrics() {
-        return new HashMap<>(metrics);
+        Map<String, Long> metrics = new HashMap<>(customMetrics);
+        metrics.put("comparisons", comparisons.sum());
+        metrics.put("arrayAccess", arrayAccess.sum());
+        metrics.put("assignments", assignments.sum());
+        if (allocationTracking) {
+            metrics.put("allocatedBytes", allocatedBytes.sum());
+            metrics.put("gcCount", gcCount.sum());
+            metrics.put("gcTimeMs", gcTimeMs.sum());
+        }
+        return metrics;
     }
 
     public void reset() {
-        metrics.clear();
-        metrics.put("comparisons", 0L);
-        metrics.put("arrayAccess", 0L);
-        metrics.put("assignments", 0L);
+        customMetrics.clear();
+        comparisons.reset();
+        arrayAccess.reset();
+        assignments.reset();
+        allocatedBytes.reset();
+        gcCount.reset();
+        gcTimeMs.reset();
         startTime = 0;
         endTime = 0;
     }
@@ -62,17 +212,35 @@ public class PerformanceTracker {
         System.out.printf("Comparisons: %,d%n", getMetric("comparisons"));
         System.out.printf("Array accesses: %,d%n", getMetric("arrayAccess"));
         System.out.printf("Assignments: %,d%n", getMetric("assignments"));
+        if (allocationTracking) {
+            System.out.printf("Allocated: %,d bytes%n", allocatedBytes.sum());
+            System.out.printf("GC: %,d collections, %,d ms%n", gcCount.sum(), gcTimeMs.sum());
+        }
+        if (latencies.getCount() > 1) {
+            System.out.printf("Latency over %,d calls: p50 %,d ns, p90 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns%n",
+                    latencies.getCount(),
+                    latencies.getPercentile(50),
+                    latencies.getPercentile(90),
+                    latencies.getPercentile(99),
+                    latencies.getPercentile(99.9),
+                    latencies.getMax());
+        }
     }
 
     public String getMetricsCSV() {
-        return String.format("%d,%d,%d,%d",
+        return String.format("%d,%d,%d,%d,%d,%d,%d,%d,%d",
                 getElapsedTime(),
                 getMetric("comparisons"),
                 getMetric("arrayAccess"),
-                getMetric("assignments"));
+                getMetric("assignments"),
+                latencies.getPercentile(50),
+                latencies.getPercentile(90),
+                latencies.getPercentile(99),
+                latencies.getPercentile(99.9),
+                latencies.getMax());
     }
 
     public static String getCSVHeader() {
-        return "time_ns,comparisons,array_access,assignments";
+        return "time_ns,comparisons,array_access,assignments,p50_ns,p90_ns,p99_ns,p999_ns,max_ns";
     }
 }
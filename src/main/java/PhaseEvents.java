@@ -0,0 +1,52 @@
+/**
+ * Guarded entry point to the Flight Recorder phase events. The vote classes
+ * only talk to this class, never to jdk.jfr, so they still run on a runtime
+ * image without the jdk.jfr module; there every begin call returns null. The
+ * event objects are passed around as Object for the same reason.
+ */
+final class PhaseEvents {
+
+    private static final boolean AVAILABLE = probe();
+
+    private PhaseEvents() {
+    }
+
+    /** Checks that jdk.jfr is present without starting Flight Recorder. */
+    private static boolean probe() {
+        try {
+            Class.forName("jdk.jfr.Event", false, PhaseEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /** Returns a started event, or null when it is not being recorded. */
+    static Object beginCandidate() {
+        return AVAILABLE ? MajorityVoteEvents.beginCandidate() : null;
+    }
+
+    static Object beginVerify() {
+        return AVAILABLE ? MajorityVoteEvents.beginVerify() : null;
+    }
+
+    static Object beginFrequency() {
+        return AVAILABLE ? MajorityVoteEvents.beginFrequency() : null;
+    }
+
+    static void commitCandidate(Object event, int size, int candidate, int count) {
+        MajorityVoteEvents.commitCandidate(event, size, candidate, count);
+    }
+
+    static void commitVerify(Object event, int size, int candidate, boolean majority, int stoppedAt) {
+        MajorityVoteEvents.commitVerify(event, size, candidate, majority, stoppedAt);
+    }
+
+    static void commitFrequency(Object event, int size, int candidate, int frequency) {
+        MajorityVoteEvents.commitFrequency(event, size, candidate, frequency);
+    }
+}
@@ -0,0 +1,202 @@
+import java.util.Arrays;
+
+/**
+ * Preprocessed index answering "majority of nums[l..r]" in O(log n).
+ * A bottom-up segment tree of Boyer-Moore (candidate, count) pairs yields the
+ * only possible majority of a range; its exact frequency is then found by
+ * binary search in the sorted position list of that value. All storage is
+ * primitive arrays: 4n ints for the tree and 2n for the positions.
+ */
+public class RangeMajorityIndex {
+
+    private final int n;
+    private final int[] treeCandidate;
+    private final int[] treeCount;
+
+    // positions holds the indices of each value in ascending order, grouped by
+    // value; the group of distinctValues[i] is positions[groupStart[i] .. groupStart[i + 1]).
+    private final int[] distinctValues;
+    private final int[] groupStart;
+    private final int[] positions;
+
+    public RangeMajorityIndex(int[] nums) {
+        if (nums == null) {
+            throw new IllegalArgumentException("Input array must not be null");
+        }
+        this.n = nums.length;
+        this.treeCandidate = new int[2 * n];
+        this.treeCount = new int[2 * n];
+
+        for (int i = 0; i < n; i++) {
+            treeCandidate[n + i] = nums[i];
+            treeCount[n + i] = 1;
+        }
+        for (int node = n - 1; node > 0; node--) {
+            merge(node, 2 * node, 2 * node + 1);
+        }
+
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            keyed[i] = ((long) nums[i] << 32) | i;
+        }
+        Arrays.sort(keyed);
+
+        this.positions = new int[n];
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            positions[i] = (int) keyed[i];
+            if (i == 0 || (int) (keyed[i] >> 32) != (int) (keyed[i - 1] >> 32)) {
+                distinct++;
+            }
+        }
+
+        this.distinctValues = new int[distinct];
+        this.groupStart = new int[distinct + 1];
+        for (int i = 0, group = -1; i < n; i++) {
+            int value = (int) (keyed[i] >> 32);
+            if (group < 0 || distinctValues[group] != value) {
+                group++;
+                distinctValues[group] = value;
+                groupStart[group] = i;
+            }
+        }
+        groupStart[distinct] = n;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Majority of nums[left..right] (both inclusive), or Integer.MIN_VALUE.
+     */
+    public int majority(int left, int right) {
+        checkRange(left, right);
+        int candidate = candidate(left, right);
+        return countInRange(candidate, left, right) > (right - left + 1) / 2 ? candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult majorityDetailed(int left, int right) {
+        checkRange(left, right);
+        int candidate = candidate(left, right);
+        int frequency = countInRange(candidate, left, right);
+        int length = right - left + 1;
+        return new BoyerMooreMajorityVote.MajorityResult(candidate, frequency, length, frequency > length / 2);
+    }
+
+    /**
+     * Answers queries[i] = nums[lefts[i]..rights[i]] into out without allocating.
+     */
+    public void majorities(int[] lefts, int[] rights, int[] out) {
+        if (lefts.length != rights.length || out.length < lefts.length) {
+            throw new IllegalArgumentException("Query bounds and output must have matching lengths");
+        }
+        for (int i = 0; i < lefts.length; i++) {
+            out[i] = majority(lefts[i], rights[i]);
+        }
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult[] majoritiesDetailed(int[] lefts, int[] rights) {
+        if (lefts.length != rights.length) {
+            throw new IllegalArgumentException("Query bounds must have matching lengths");
+        }
+        BoyerMooreMajorityVote.MajorityResult[] results = new BoyerMooreMajorityVote.MajorityResult[lefts.length];
+        for (int i = 0; i < lefts.length; i++) {
+            results[i] = majorityDetailed(lefts[i], rights[i]);
+        }
+        return results;
+    }
+
+    /**
+     * Exact number of occurrences of value in nums[left..right].
+     */
+    public int countInRange(int value, int left, int right) {
+        int group = Arrays.binarySearch(distinctValues, value);
+        if (group < 0) {
+            return 0;
+        }
+        int from = groupStart[group];
+        int to = groupStart[group + 1];
+        return lowerBound(positions, from, to, right + 1) - lowerBound(positions, from, to, left);
+    }
+
+    private int candidate(int left, int right) {
+        int leftCandidate = 0;
+        int leftCount = 0;
+        int rightCandidate = 0;
+        int rightCount = 0;
+
+        for (int lo = left + n, hi = right + n + 1; lo < hi; lo >>= 1, hi >>= 1) {
+            if ((lo & 1) == 1) {
+                int c = treeCandidate[lo];
+                int k = treeCount[lo];
+                if (leftCount == 0 || leftCandidate == c) {
+                    leftCount += k;
+                    leftCandidate = c;
+                } else if (leftCount >= k) {
+                    leftCount -= k;
+                } else {
+                    leftCandidate = c;
+                    leftCount = k - leftCount;
+                }
+                lo++;
+            }
+            if ((hi & 1) == 1) {
+                hi--;
+                int c = treeCandidate[hi];
+                int k = treeCount[hi];
+                if (rightCount == 0 || rightCandidate == c) {
+                    rightCount += k;
+                    rightCandidate = c;
+                } else if (rightCount >= k) {
+                    rightCount -= k;
+                } else {
+                    rightCandidate = c;
+                    rightCount = k - rightCount;
+                }
+            }
+        }
+
+        if (leftCount == 0) return rightCandidate;
+        if (rightCount == 0 || leftCandidate == rightCandidate) return leftCandidate;
+        return leftCount >= rightCount ? leftCandidate : rightCandidate;
+    }
+
+    private void merge(int node, int left, int right) {
+        int lc = treeCandidate[left];
+        int lk = treeCount[left];
+        int rc = treeCandidate[right];
+        int rk = treeCount[right];
+
+        if (lk == 0 || lc == rc) {
+            treeCandidate[node] = rk == 0 ? lc : rc;
+            treeCount[node] = lk + rk;
+        } else if (rk == 0 || lk >= rk) {
+            treeCandidate[node] = lc;
+            treeCount[node] = lk - rk;
+        } else {
+            treeCandidate[node] = rc;
+            treeCount[node] = rk - lk;
+        }
+    }
+
+    private void checkRange(int left, int right) {
+        if (left < 0 || right >= n || left > right) {
+            throw new IndexOutOfBoundsException("Invalid range [" + left + ", " + right + "] for size " + n);
+        }
+    }
+
+    private static int lowerBound(int[] sorted, int from, int to, int key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Two-round majority and heavy-hitters vote across shards that only exchange
+ * summaries. Round one: each shard sends its {@link MajoritySummary} and
+ * {@link HeavyHittersSummary}. The coordinator merges them and sends back the
+ * candidates. Round two: each shard replays its data and sends a
+ * {@link FrequencyReport} with exact counts. Streams can be process pipes,
+ * sockets or in-memory pipes.
+ */
+public final class ShardedMajority {
+
+    public interface ChunkSink {
+        void accept(int[] chunk, int off, int len);
+    }
+
+    /**
+     * A shard's data; replay may be called once per round.
+     */
+    public interface Shard {
+        void replay(ChunkSink sink) throws IOException;
+    }
+
+    public static final class Outcome {
+        public final FrequencyReport.MajorityCount majority;
+        public final FrequencyReport.HeavyHitterCounts heavyHitters;
+
+        Outcome(FrequencyReport.MajorityCount majority, FrequencyReport.HeavyHitterCounts heavyHitters) {
+            this.majority = majority;
+            this.heavyHitters = heavyHitters;
+        }
+    }
+
+    private ShardedMajority() {
+    }
+
+    /**
+     * Worker side: answers both rounds for one shard.
+     */
+    public static void serve(Shard shard, DataInputStream in, DataOutputStream out) throws IOException {
+        int k = in.readInt();
+        BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+        MisraGriesHeavyHitters counters = new MisraGriesHeavyHitters(k);
+        shard.replay((chunk, off, len) -> {
+            vote.accept(chunk, off, len);
+            counters.accept(chunk, off, len);
+        });
+
+        MajoritySummary.of(vote).writeTo(out);
+        HeavyHittersSummary.of(counters).writeTo(out);
+        out.flush();
+
+        int size = in.readInt();
+        int[] candidates = new int[size];
+        for (int i = 0; i < size; i++) {
+            candidates[i] = in.readInt();
+        }
+
+        long[] frequencies = new long[size];
+        long[] total = {0};
+        shard.replay((chunk, off, len) -> {
+            for (int i = 0; i < candidates.length; i++) {
+                frequencies[i] += VectorizedFrequency.count(chunk, off, off + len, candidates[i]);
+            }
+            total[0] += len;
+        });
+        new FrequencyReport(candidates, frequencies, total[0]).writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Coordinator side: ins.get(i) and outs.get(i) connect to shard i.
+     */
+    public static Outcome coordinate(int k, List<DataInputStream> ins, List<DataOutputStream> outs) throws IOException {
+        if (ins.size() != outs.size() || ins.isEmpty()) {
+            throw new IllegalArgumentException("Need one input and one output per shard");
+        }
+        for (DataOutputStream out : outs) {
+            out.writeInt(k);
+            out.flush();
+        }
+
+        int shards = ins.size();
+        MajoritySummary[] majoritySummaries = new MajoritySummary[shards];
+        HeavyHittersSummary[] heavySummaries = new HeavyHittersSummary[shards];
+        for (int i = 0; i < shards; i++) {
+            majoritySummaries[i] = MajoritySummary.readFrom(ins.get(i));
+            heavySummaries[i] = HeavyHittersSummary.readFrom(ins.get(i));
+        }
+
+        // The Boyer-Moore candidate goes first, followed by the Misra-Gries survivors.
+        int[] heavyKeys = HeavyHittersSummary.merge(heavySummaries).keys;
+        int[] candidates = new int[heavyKeys.length + 1];
+        candidates[0] = MajoritySummary.merge(majoritySummaries).candidate;
+        System.arraycopy(heavyKeys, 0, candidates, 1, heavyKeys.length);
+
+        for (DataOutputStream out : outs) {
+            out.writeInt(candidates.length);
+            for (int candidate : candidates) {
+                out.writeInt(candidate);
+            }
+            out.flush();
+        }
+
+        FrequencyReport[] reports = new FrequencyReport[shards];
+        for (int i = 0; i < shards; i++) {
+            reports[i] = FrequencyReport.readFrom(ins.get(i));
+        }
+        FrequencyReport merged = FrequencyReport.merge(reports);
+
+        FrequencyReport majorityReport = new FrequencyReport(new int[]{merged.candidates[0]},
+                new long[]{merged.frequencies[0]}, merged.total);
+        FrequencyReport heavyReport = new FrequencyReport(
+                Arrays.copyOfRange(merged.candidates, 1, merged.candidates.length),
+                Arrays.copyOfRange(merged.frequencies, 1, merged.frequencies.length), merged.total);
+        return new Outcome(majorityReport.toMajorityCount(), heavyReport.toHeavyHitterCounts(k));
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+
+/**
+ * Majority of the last W values, updated in O(1) per push. Values are kept in
+ * a primitive ring buffer; per-value frequencies live in an open-addressing
+ * table, and values are chained into per-frequency buckets so the highest
+ * frequency (and a value holding it) is always known. Nothing is allocated
+ * after construction except by {@link #majorityDetailed()}.
+ */
+public class SlidingWindowMajority {
+
+    private static final int NONE = -1;
+
+    private final int[] window;
+    private int head;
+    private int count;
+
+    // Slot storage for distinct values currently in the window.
+    private final int[] slotKey;
+    private final int[] slotFreq;
+    private final int[] next;
+    private final int[] prev;
+    private int freeSlot;
+
+    // Open-addressing index: value -> slot + 1 (0 marks an empty bucket).
+    private final int[] table;
+    private final int tableMask;
+
+    // bucketHead[f] is the first slot whose value occurs exactly f times.
+    private final int[] bucketHead;
+    private int maxFrequency;
+
+    public SlidingWindowMajority(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive, got " + windowSize);
+        }
+        this.window = new int[windowSize];
+        this.slotKey = new int[windowSize];
+        this.slotFreq = new int[windowSize];
+        this.next = new int[windowSize];
+        this.prev = new int[windowSize];
+        int capacity = Integer.highestOneBit(Math.max(2, windowSize * 2) - 1) << 1;
+        this.table = new int[capacity];
+        this.tableMask = capacity - 1;
+        this.bucketHead = new int[windowSize + 1];
+        clear();
+    }
+
+    public void push(int value) {
+        if (count == window.length) {
+            decrement(window[head]);
+        } else {
+            count++;
+        }
+        window[head] = value;
+        head = head + 1 == window.length ? 0 : head + 1;
+        increment(value);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return window.length;
+    }
+
+    public boolean hasMajority() {
+        return maxFrequency > count / 2;
+    }
+
+    public int majority() {
+        return hasMajority() ? slotKey[bucketHead[maxFrequency]] : Integer.MIN_VALUE;
+    }
+
+    public int frequencyOf(int value) {
+        int bucket = findBucket(value);
+        return bucket < 0 ? 0 : slotFreq[table[bucket] - 1];
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult majorityDetailed() {
+        if (count == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+        int candidate = slotKey[bucketHead[maxFrequency]];
+        return new BoyerMooreMajorityVote.MajorityResult(candidate, maxFrequency, count, hasMajority());
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        maxFrequency = 0;
+        Arrays.fill(table, 0);
+        Arrays.fill(bucketHead, NONE);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length ? i + 1 : NONE;
+        }
+        freeSlot = 0;
+    }
+
+    private void increment(int value) {
+        int bucket = findBucket(value);
+        int slot;
+        if (bucket < 0) {
+            slot = freeSlot;
+            freeSlot = next[slot];
+            slotKey[slot] = value;
+            slotFreq[slot] = 0;
+            insertBucket(value, slot);
+        } else {
+            slot = table[bucket] - 1;
+            unlink(slot);
+        }
+
+        int frequency = ++slotFreq[slot];
+        link(slot);
+        if (frequency > maxFrequency) {
+            maxFrequency = frequency;
+        }
+    }
+
+    private void decrement(int value) {
+        int bucket = findBucket(value);
+        int slot = table[bucket] - 1;
+        int oldFrequency = slotFreq[slot];
+        unlink(slot);
+
+        if (--slotFreq[slot] == 0) {
+            removeBucket(bucket);
+            next[slot] = freeSlot;
+            freeSlot = slot;
+        } else {
+            link(slot);
+        }
+
+        if (oldFrequency == maxFrequency && bucketHead[oldFrequency] == NONE) {
+            maxFrequency--;
+        }
+    }
+
+    private void link(int slot) {
+        int frequency = slotFreq[slot];
+        int first = bucketHead[frequency];
+        prev[slot] = NONE;
+        next[slot] = first;
+        if (first != NONE) {
+            prev[first] = slot;
+        }
+        bucketHead[frequency] = slot;
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before != NONE) {
+            next[before] = after;
+        } else {
+            bucketHead[slotFreq[slot]] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+    }
+
+    private int findBucket(int value) {
+        int bucket = hash(value) & tableMask;
+        while (true) {
+            int entry = table[bucket];
+            if (entry == 0) {
+                return -1;
+            }
+            if (slotKey[entry - 1] == value) {
+                return bucket;
+            }
+            bucket = (bucket + 1) & tableMask;
+        }
+    }
+
+    private void insertBucket(int value, int slot) {
+        int bucket = hash(value) & tableMask;
+        while (table[bucket] != 0) {
+            bucket = (bucket + 1) & tableMask;
+        }
+        table[bucket] = slot + 1;
+    }
+
+    // Backward-shift deletion keeps linear probing chains intact without tombstones.
+    private void removeBucket(int bucket) {
+        int hole = bucket;
+        int probe = bucket;
+        while (true) {
+            probe = (probe + 1) & tableMask;
+            int entry = table[probe];
+            if (entry == 0) {
+                break;
+            }
+            int home = hash(slotKey[entry - 1]) & tableMask;
+            boolean movable = hole <= probe
+                    ? home <= hole || home > probe
+                    : home <= hole && home > probe;
+            if (movable) {
+                table[hole] = entry;
+                hole = probe;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
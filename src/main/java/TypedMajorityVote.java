@@ -0,0 +1,273 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+/**
+ * Boyer-Moore majority vote specialized for long[], short[], byte[], char[]
+ * and generic keys, so callers neither truncate nor box their data. byte[]
+ * input, and large short[]/char[] input, is counted with a reusable counting
+ * array instead, which needs a single pass.
+ */
+public class TypedMajorityVote {
+
+    static final int SMALL_RANGE_COUNTING_THRESHOLD = 1 << 16;
+
+    private final int[] byteCounts = new int[1 << 8];
+    private int[] shortCounts;
+
+    public long findMajorityElement(long[] nums) {
+        LongMajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Long.MIN_VALUE;
+    }
+
+    public LongMajorityResult findMajorityElementDetailed(long[] nums) {
+        if (nums == null || nums.length == 0) {
+            return new LongMajorityResult(Long.MIN_VALUE, 0, 0, false);
+        }
+
+        long candidate = 0;
+        int count = 0;
+        for (long num : nums) {
+            if (count == 0) {
+                candidate = num;
+                count = 1;
+            } else if (candidate == num) {
+                count++;
+            } else {
+                count--;
+            }
+        }
+
+        int frequency = 0;
+        for (long num : nums) {
+            if (num == candidate) {
+                frequency++;
+            }
+        }
+        return new LongMajorityResult(candidate, frequency, nums.length, frequency > nums.length / 2);
+    }
+
+    public int findMajorityElement(byte[] nums) {
+        BoyerMooreMajorityVote.MajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(byte[] nums) {
+        if (nums == null || nums.length == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+
+        int[] counts = byteCounts;
+        Arrays.fill(counts, 0);
+        for (byte num : nums) {
+            counts[num & 0xFF]++;
+        }
+        int best = argMax(counts);
+        return new BoyerMooreMajorityVote.MajorityResult((byte) best, counts[best], nums.length,
+                counts[best] > nums.length / 2);
+    }
+
+    public int findMajorityElement(short[] nums) {
+        BoyerMooreMajorityVote.MajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(short[] nums) {
+        if (nums == null || nums.length == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+
+        if (nums.length >= SMALL_RANGE_COUNTING_THRESHOLD) {
+            int[] counts = clearedShortCounts();
+            for (short num : nums) {
+                counts[num & 0xFFFF]++;
+            }
+            int best = argMax(counts);
+            return new BoyerMooreMajorityVote.MajorityResult((short) best, counts[best], nums.length,
+                    counts[best] > nums.length / 2);
+        }
+
+        short candidate = 0;
+        int count = 0;
+        for (short num : nums) {
+            if (count == 0) {
+                candidate = num;
+                count = 1;
+            } else if (candidate == num) {
+                count++;
+            } else {
+                count--;
+            }
+        }
+
+        int frequency = 0;
+        for (short num : nums) {
+            if (num == candidate) {
+                frequency++;
+            }
+        }
+        return new BoyerMooreMajorityVote.MajorityResult(candidate, frequency, nums.length,
+                frequency > nums.length / 2);
+    }
+
+    public int findMajorityElement(char[] nums) {
+        BoyerMooreMajorityVote.MajorityResult result = findMajorityElementDetailed(nums);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public BoyerMooreMajorityVote.MajorityResult findMajorityElementDetailed(char[] nums) {
+        if (nums == null || nums.length == 0) {
+            return new BoyerMooreMajorityVote.MajorityResult(Integer.MIN_VALUE, 0, 0, false);
+        }
+
+        if (nums.length >= SMALL_RANGE_COUNTING_THRESHOLD) {
+            int[] counts = clearedShortCounts();
+            for (char num : nums) {
+                counts[num]++;
+            }
+            int best = argMax(counts);
+            return new BoyerMooreMajorityVote.MajorityResult(best, counts[best], nums.length,
+                    counts[best] > nums.length / 2);
+        }
+
+        char candidate = 0;
+        int count = 0;
+        for (char num : nums) {
+            if (count == 0) {
+                candidate = num;
+                count = 1;
+            } else if (candidate == num) {
+                count++;
+            } else {
+                count--;
+            }
+        }
+
+        int frequency = 0;
+        for (char num : nums) {
+            if (num == candidate) {
+                frequency++;
+            }
+        }
+        return new BoyerMooreMajorityVote.MajorityResult(candidate, frequency, nums.length,
+                frequency > nums.length / 2);
+    }
+
+    public static <T> ObjectMajorityResult<T> findMajorityElementDetailed(T[] items) {
+        return findMajorityElementDetailed(items, Objects::equals);
+    }
+
+    public static <T> ObjectMajorityResult<T> findMajorityElementDetailed(T[] items,
+                                                                         BiPredicate<? super T, ? super T> equality) {
+        if (items == null) {
+            return new ObjectMajorityResult<>(null, 0, 0, false);
+        }
+        return findMajorityElementDetailed(Arrays.asList(items), equality);
+    }
+
+    /**
+     * Iterates the input twice: once for the candidate and once to count it.
+     */
+    public static <T> ObjectMajorityResult<T> findMajorityElementDetailed(Iterable<? extends T> items,
+                                                                         BiPredicate<? super T, ? super T> equality) {
+        if (items == null) {
+            return new ObjectMajorityResult<>(null, 0, 0, false);
+        }
+
+        T candidate = null;
+        long count = 0;
+        long total = 0;
+        for (T item : items) {
+            if (count == 0) {
+                candidate = item;
+                count = 1;
+            } else if (equality.test(candidate, item)) {
+                count++;
+            } else {
+                count--;
+            }
+            total++;
+        }
+
+        if (total == 0) {
+            return new ObjectMajorityResult<>(null, 0, 0, false);
+        }
+
+        long frequency = 0;
+        Iterator<? extends T> it = items.iterator();
+        while (it.hasNext()) {
+            if (equality.test(candidate, it.next())) {
+                frequency++;
+            }
+        }
+        return new ObjectMajorityResult<>(candidate, frequency, total, frequency > total / 2);
+    }
+
+    private int[] clearedShortCounts() {
+        if (shortCounts == null) {
+            shortCounts = new int[1 << 16];
+        } else {
+            Arrays.fill(shortCounts, 0);
+        }
+        return shortCounts;
+    }
+
+    private static int argMax(int[] counts) {
+        int best = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public static class LongMajorityResult {
+        public final long candidate;
+        public final int frequency;
+        public final int totalElements;
+        public final boolean isMajority;
+
+        public LongMajorityResult(long candidate, int frequency, int totalElements, boolean isMajority) {
+            this.candidate = candidate;
+            this.frequency = frequency;
+            this.totalElements = totalElements;
+            this.isMajority = isMajority;
+        }
+
+        @Override
+        public String toString() {
+            if (!isMajority) {
+                return String.format("No majority element found. Candidate: %d (appears %d/%d times, %.1f%%)",
+                        candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+            }
+            return String.format("Majority element: %d (appears %d/%d times, %.1f%%)",
+                    candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+        }
+    }
+
+    public static class ObjectMajorityResult<T> {
+        public final T candidate;
+        public final long frequency;
+        public final long totalElements;
+        public final boolean isMajority;
+
+        public ObjectMajorityResult(T candidate, long frequency, long totalElements, boolean isMajority) {
+            this.candidate = candidate;
+            this.frequency = frequency;
+            this.totalElements = totalElements;
+            this.isMajority = isMajority;
+        }
+
+        @Override
+        public String toString() {
+            if (!isMajority) {
+                return String.format("No majority element found. Candidate: %s (appears %d/%d times, %.1f%%)",
+                        candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+            }
+            return String.format("Majority element: %s (appears %d/%d times, %.1f%%)",
+                    candidate, frequency, totalElements, (frequency * 100.0 / totalElements));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Counts occurrences of a candidate in an int[] range using the Vector API
+ * when it is available (run with --add-modules jdk.incubator.vector), and a
+ * plain scalar loop otherwise.
+ */
+public final class VectorizedFrequency {
+
+    static final int BLOCK_SIZE = 4096;
+
+    private static final boolean VECTOR_AVAILABLE = probe();
+
+    private VectorizedFrequency() {
+    }
+
+    private static boolean probe() {
+        try {
+            return IntVectorKernel.count(new int[]{1}, 0, 1, 1) == 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    public static int count(int[] nums, int from, int to, int candidate) {
+        if (VECTOR_AVAILABLE) {
+            return IntVectorKernel.count(nums, from, to, candidate);
+        }
+        return countScalar(nums, from, to, candidate);
+    }
+
+    public static int countScalar(int[] nums, int from, int to, int candidate) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (nums[i] == candidate) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns true as soon as the candidate is seen more than threshold times.
+     * Counting is done block by block so early termination still applies.
+     */
+    public static boolean exceeds(int[] nums, int candidate, int threshold) {
+        return decidedAt(nums, candidate, threshold) >= 0;
+    }
+
+    /**
+     * Same scan as exceeds, but reports where it stopped: the number of
+     * elements scanned when the outcome was decided, or its bitwise
+     * complement when the candidate does not exceed the threshold.
+     */
+    static int decidedAt(int[] nums, int candidate, int threshold) {
+        int count = 0;
+        for (int from = 0; from < nums.length; from += BLOCK_SIZE) {
+            int to = Math.min(nums.length, from + BLOCK_SIZE);
+            count += count(nums, from, to, candidate);
+            if (count > threshold) {
+                return to;
+            }
+            if (count + (nums.length - to) <= threshold) {
+                return ~to;
+            }
+        }
+        return count > threshold ? nums.length : ~nums.length;
+    }
+}
@@ -0,0 +1,355 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Majority by weight: finds the value whose weights sum to more than half of
+ * the total weight. The candidate pass is the weighted form of Boyer-Moore
+ * (a vote for a different value cancels as much balance as its weight), and
+ * the verify pass sums the candidate's weight. Both passes are split into a
+ * fixed tree of fork-join tasks for inputs of PARALLEL_THRESHOLD elements or
+ * more; the split points do not depend on scheduling, so double sums are
+ * reproducible from run to run.
+ *
+ * Weights must be non-negative. Long weights are summed exactly with
+ * Math.addExact and reported as longs, so totals beyond 2^53 are not rounded;
+ * a total that overflows a long throws ArithmeticException.
+ */
+public class WeightedMajorityVote {
+
+    static final int LEAF_SIZE = BoyerMooreMajorityVote.PARALLEL_THRESHOLD;
+
+    private final ForkJoinPool pool;
+
+    public WeightedMajorityVote() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public WeightedMajorityVote(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int findMajorityElement(int[] values, long[] weights) {
+        LongWeightedMajorityResult result = findMajorityElementDetailed(values, weights);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public int findMajorityElement(int[] values, double[] weights) {
+        WeightedMajorityResult result = findMajorityElementDetailed(values, weights);
+        return result.isMajority ? result.candidate : Integer.MIN_VALUE;
+    }
+
+    public LongWeightedMajorityResult findMajorityElementDetailed(int[] values, long[] weights) {
+        checkLengths(values, weights == null ? -1 : weights.length);
+        if (values.length == 0) {
+            return new LongWeightedMajorityResult(Integer.MIN_VALUE, 0, 0, false, 0, 0);
+        }
+
+        long[] vote = run(new LongCandidateTask(values, weights, 0, values.length));
+        int candidate = (int) vote[0];
+        long total = vote[2];
+        long[] verified = run(new LongVerifyTask(values, weights, 0, values.length, candidate));
+        long candidateWeight = verified[0];
+
+        boolean isMajority = candidateWeight > total - candidateWeight;
+        return new LongWeightedMajorityResult(candidate, Math.toIntExact(verified[1]), values.length, isMajority,
+                candidateWeight, total);
+    }
+
+    public WeightedMajorityResult findMajorityElementDetailed(int[] values, double[] weights) {
+        checkLengths(values, weights == null ? -1 : weights.length);
+        if (values.length == 0) {
+            return new WeightedMajorityResult(Integer.MIN_VALUE, 0, 0, false, 0, 0);
+        }
+
+        double[] vote = run(new DoubleCandidateTask(values, weights, 0, values.length));
+        int candidate = (int) vote[0];
+        double total = vote[2];
+        double[] verified = run(new DoubleVerifyTask(values, weights, 0, values.length, candidate));
+        double candidateWeight = verified[0];
+
+        boolean isMajority = candidateWeight > total - candidateWeight;
+        return new WeightedMajorityResult(candidate, (int) verified[1], values.length, isMajority,
+                candidateWeight, total);
+    }
+
+    private static void checkLengths(int[] values, int weightCount) {
+        if (values == null || weightCount < 0) {
+            throw new IllegalArgumentException("values and weights must not be null");
+        }
+        if (values.length != weightCount) {
+            throw new IllegalArgumentException("values has " + values.length
+                    + " elements but weights has " + weightCount);
+        }
+    }
+
+    private <T> T run(Reduction<T> task) {
+        if (task.to - task.from <= LEAF_SIZE) {
+            return task.leaf();
+        }
+        return pool.invoke(task);
+    }
+
+    /**
+     * Fork-join reduction over [from, to): halves down to LEAF_SIZE, then
+     * merges the partial results left to right.
+     */
+    private abstract static class Reduction<T> extends RecursiveTask<T> {
+        final int from;
+        final int to;
+
+        Reduction(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        abstract T leaf();
+
+        abstract Reduction<T> child(int from, int to);
+
+        abstract T merge(T left, T right);
+
+        @Override
+        protected T compute() {
+            if (to - from <= LEAF_SIZE) {
+                return leaf();
+            }
+            int mid = (from + to) >>> 1;
+            Reduction<T> left = child(from, mid);
+            left.fork();
+            T right = child(mid, to).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    /** Partial result: {candidate, balance, total weight}. */
+    private static final class LongCandidateTask extends Reduction<long[]> {
+        private final int[] values;
+        private final long[] weights;
+
+        LongCandidateTask(int[] values, long[] weights, int from, int to) {
+            super(from, to);
+            this.values = values;
+            this.weights = weights;
+        }
+
+        @Override
+        long[] leaf() {
+            int candidate = 0;
+            long balance = 0;
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                long weight = weights[i];
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight " + weight + " at index " + i);
+                }
+                total = Math.addExact(total, weight);
+                int value = values[i];
+                if (value == candidate) {
+                    balance += weight;
+                } else if (balance >= weight) {
+                    balance -= weight;
+                } else {
+                    candidate = value;
+                    balance = weight - balance;
+                }
+            }
+            return new long[]{candidate, balance, total};
+        }
+
+        @Override
+        Reduction<long[]> child(int from, int to) {
+            return new LongCandidateTask(values, weights, from, to);
+        }
+
+        @Override
+        long[] merge(long[] left, long[] right) {
+            long[] pair = BoyerMooreMajorityVote.mergeCandidates(left, right);
+            return new long[]{pair[0], pair[1], Math.addExact(left[2], right[2])};
+        }
+    }
+
+    /** Partial result: {candidate weight, candidate occurrences}. */
+    private static final class LongVerifyTask extends Reduction<long[]> {
+        private final int[] values;
+        private final long[] weights;
+        private final int candidate;
+
+        LongVerifyTask(int[] values, long[] weights, int from, int to, int candidate) {
+            super(from, to);
+            this.values = values;
+            this.weights = weights;
+            this.candidate = candidate;
+        }
+
+        @Override
+        long[] leaf() {
+            long weight = 0;
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                if (values[i] == candidate) {
+                    weight += weights[i];
+                    count++;
+                }
+            }
+            return new long[]{weight, count};
+        }
+
+        @Override
+        Reduction<long[]> child(int from, int to) {
+            return new LongVerifyTask(values, weights, from, to, candidate);
+        }
+
+        @Override
+        long[] merge(long[] left, long[] right) {
+            return new long[]{left[0] + right[0], left[1] + right[1]};
+        }
+    }
+
+    /** Partial result: {candidate, balance, total weight}. */
+    private static final class DoubleCandidateTask extends Reduction<double[]> {
+        private final int[] values;
+        private final double[] weights;
+
+        DoubleCandidateTask(int[] values, double[] weights, int from, int to) {
+            super(from, to);
+            this.values = values;
+            this.weights = weights;
+        }
+
+        @Override
+        double[] leaf() {
+            int candidate = 0;
+            double balance = 0;
+            double total = 0;
+            for (int i = from; i < to; i++) {
+                double weight = weights[i];
+                if (!(weight >= 0) || weight == Double.POSITIVE_INFINITY) {
+                    throw new IllegalArgumentException("Invalid weight " + weight + " at index " + i);
+                }
+                total += weight;
+                int value = values[i];
+                if (value == candidate) {
+                    balance += weight;
+                } else if (balance >= weight) {
+                    balance -= weight;
+                } else {
+                    candidate = value;
+                    balance = weight - balance;
+                }
+            }
+            return new double[]{candidate, balance, total};
+        }
+
+        @Override
+        Reduction<double[]> child(int from, int to) {
+            return new DoubleCandidateTask(values, weights, from, to);
+        }
+
+        @Override
+        double[] merge(double[] left, double[] right) {
+            double total = left[2] + right[2];
+            if (left[0] == right[0]) {
+                return new double[]{left[0], left[1] + right[1], total};
+            }
+            if (left[1] >= right[1]) {
+                return new double[]{left[0], left[1] - right[1], total};
+            }
+            return new double[]{right[0], right[1] - left[1], total};
+        }
+    }
+
+    /** Partial result: {candidate weight, candidate occurrences}. */
+    private static final class DoubleVerifyTask extends Reduction<double[]> {
+        private final int[] values;
+        private final double[] weights;
+        private final int candidate;
+
+        DoubleVerifyTask(int[] values, double[] weights, int from, int to, int candidate) {
+            super(from, to);
+            this.values = values;
+            this.weights = weights;
+            this.candidate = candidate;
+        }
+
+        @Override
+        double[] leaf() {
+            double weight = 0;
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (values[i] == candidate) {
+                    weight += weights[i];
+                    count++;
+                }
+            }
+            return new double[]{weight, count};
+        }
+
+        @Override
+        Reduction<double[]> child(int from, int to) {
+            return new DoubleVerifyTask(values, weights, from, to, candidate);
+        }
+
+        @Override
+        double[] merge(double[] left, double[] right) {
+            return new double[]{left[0] + right[0], left[1] + right[1]};
+        }
+    }
+
+    /**
+     * Weighted vote outcome. frequency still counts occurrences of the
+     * candidate; the majority decision is made on weightShare.
+     */
+    public static class WeightedMajorityResult extends BoyerMooreMajorityVote.MajorityResult {
+        public final double candidateWeight;
+        public final double totalWeight;
+        public final double weightShare;
+
+        public WeightedMajorityResult(int candidate, int frequency, int totalElements, boolean isMajority,
+                                      double candidateWeight, double totalWeight) {
+            super(candidate, frequency, totalElements, isMajority);
+            this.candidateWeight = candidateWeight;
+            this.totalWeight = totalWeight;
+            this.weightShare = totalWeight > 0 ? candidateWeight / totalWeight : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d: weight %s of %s (%.1f%% share, %d/%d elements)",
+                    isMajority ? "Weighted majority element:" : "No weighted majority. Candidate:",
+                    candidate, formatWeight(candidateWeight), formatWeight(totalWeight), weightShare * 100,
+                    frequency, totalElements);
+        }
+
+        private static String formatWeight(double weight) {
+            if (weight == Math.rint(weight) && Math.abs(weight) < 1e15) {
+                return Long.toString((long) weight);
+            }
+            return String.format("%.4f", weight);
+        }
+    }
+
+    /**
+     * Weighted vote outcome for long weights. The weights are kept as exact
+     * longs; only weightShare is a double.
+     */
+    public static class LongWeightedMajorityResult extends BoyerMooreMajorityVote.MajorityResult {
+        public final long candidateWeight;
+        public final long totalWeight;
+        public final double weightShare;
+
+        public LongWeightedMajorityResult(int candidate, int frequency, int totalElements, boolean isMajority,
+                                          long candidateWeight, long totalWeight) {
+            super(candidate, frequency, totalElements, isMajority);
+            this.candidateWeight = candidateWeight;
+            this.totalWeight = totalWeight;
+            this.weightShare = totalWeight > 0 ? (double) candidateWeight / totalWeight : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %d: weight %d of %d (%.1f%% share, %d/%d elements)",
+                    isMajority ? "Weighted majority element:" : "No weighted majority. Candidate:",
+                    candidate, candidateWeight, totalWeight, weightShare * 100, frequency, totalElements);
+        }
+    }
+}
@@ -23,6 +23,57 @@ public class BoyerMooreMajorityVoteTest {
         testPerformanceMetrics();
         testMetricsReset();
         testEarlyTermination();
+        testParallelWithMajority();
+        testParallelNoMajority();
+        testParallelSmallFallsBack();
+        testVectorizedCountMatchesScalar();
+        testMetricCountsFlushedPerCall();
+        testCustomMetricKeys();
+        testStreamingVoteChunks();
+        testStreamingVerifierFromIntStream();
+        testMappedFileMajority();
+        testHeavyHittersAboveThird();
+        testHeavyHittersNone();
+        testSlidingWindowMatchesRescan();
+        testConcurrentAccumulatorStress();
+        testTrackerConcurrentUpdates();
+        testLongMajority();
+        testByteAndShortMajority();
+        testGenericMajorityWithEquality();
+        testRangeMajorityMatchesRescan();
+        testDynamicMajorityPointUpdates();
+        testBatchMatchesPerCall();
+        testLatencyHistogramPercentiles();
+        testTrackerRecordsEveryCall();
+        testGeneratorPlantsExactMajority();
+        testGeneratorChunksAreDeterministic();
+        testSummariesRoundTripAndMerge();
+        testShardedVoteOverPipes();
+        testApproximateClearMajority();
+        testApproximateNoMajority();
+        testApproximateInconclusiveFallsBack();
+        testIntBufferMajority();
+        testByteBufferMajority();
+        testTextParserDelimitersAndSigns();
+        testTextParserAcrossBufferBoundaries();
+        testAdaptiveSelectsByShape();
+        testAdaptiveMatchesSequential();
+        testTrackerAllocationMetrics();
+        testHotPathDoesNotAllocate();
+        testPhaseEventsRecorded();
+        testGroupedMajoritySmall();
+        testGroupedMajorityPartitioned();
+        testWeightedMajorityBasics();
+        testWeightedMajorityParallelMatchesBruteForce();
+        testVoteServiceMatchesInProcess();
+        testVoteServiceUnixSocketAndBadFrame();
+        testVoteServiceSurvivesHostileClients();
+        testFrequencyReportBeyondIntTotals();
+        testApproximateFallbackTimedOnce();
+        testBatchLargeArraysUseGivenPool();
+        testTextParserSignRules();
+        testVoteServicePausesUnreadClients();
+        testWeightedMajorityExactLongTotals();
 
         System.out.println("\n=== Test Results ===");
         System.out.printf("Passed: %d/%d tests%n", passCount, testCount);
@@ -210,4 +261,1142 @@ public class BoyerMooreMajorityVoteTest {
 
         assertTrue(metrics.getMetric("comparisons") > 0, "testEarlyTermination");
     }
+
+    private static void testParallelWithMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int size = BoyerMooreMajorityVote.PARALLEL_THRESHOLD * 8 + 3;
+        int[] nums = new int[size];
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < size; i++) {
+            nums[i] = i <= size / 2 ? 4 : random.nextInt(10);
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = nums[i];
+            nums[i] = nums[j];
+            nums[j] = temp;
+        }
+
+        BoyerMooreMajorityVote.MajorityResult expected = bm.findMajorityElementDetailed(nums);
+        BoyerMooreMajorityVote.MajorityResult actual = bm.findMajorityElementDetailedParallel(nums);
+
+        assertTrue(actual.isMajority, "testParallelWithMajority - isMajority");
+        assertEquals(expected.candidate, actual.candidate, "testParallelWithMajority - candidate");
+        assertEquals(expected.frequency, actual.frequency, "testParallelWithMajority - frequency");
+    }
+
+    private static void testParallelNoMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int size = BoyerMooreMajorityVote.PARALLEL_THRESHOLD * 4;
+        int[] nums = new int[size];
+        for (int i = 0; i < size; i++) {
+            nums[i] = i % 2;
+        }
+
+        assertEquals(Integer.MIN_VALUE, bm.findMajorityElementParallel(nums), "testParallelNoMajority");
+    }
+
+    private static void testParallelSmallFallsBack() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = {2, 2, 1, 1, 1, 2, 2};
+        assertEquals(2, bm.findMajorityElementParallel(nums), "testParallelSmallFallsBack");
+        assertEquals(Integer.MIN_VALUE, bm.findMajorityElementParallel(null), "testParallelSmallFallsBack - null");
+    }
+
+    private static void testVectorizedCountMatchesScalar() {
+        java.util.Random random = new java.util.Random(11);
+        int[] nums = new int[10007];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextInt(4);
+        }
+
+        assertEquals(VectorizedFrequency.countScalar(nums, 3, nums.length - 5, 2),
+                VectorizedFrequency.count(nums, 3, nums.length - 5, 2),
+                "testVectorizedCountMatchesScalar");
+        assertFalse(VectorizedFrequency.exceeds(nums, 2, nums.length / 2),
+                "testVectorizedCountMatchesScalar - exceeds");
+    }
+
+    private static void testMetricCountsFlushedPerCall() {
+        BoyerMooreMajorityVote bmWithMetrics = new BoyerMooreMajorityVote(true);
+        int[] nums = {2, 2, 1, 1, 1, 2, 2};
+
+        bmWithMetrics.findMajorityElementDetailed(nums);
+        PerformanceTracker metrics = bmWithMetrics.getPerformanceTracker();
+
+        // Candidate pass: 7 comparisons, 7 + 3 resets assignments; frequency pass: 7 comparisons, 4 matches.
+        assertEquals(14L, metrics.getMetric("comparisons"), "testMetricCountsFlushedPerCall - comparisons");
+        assertEquals(21L, metrics.getMetric("arrayAccess"), "testMetricCountsFlushedPerCall - arrayAccess");
+        assertEquals(14L, metrics.getMetric("assignments"), "testMetricCountsFlushedPerCall - assignments");
+    }
+
+    private static void testCustomMetricKeys() {
+        PerformanceTracker tracker = new PerformanceTracker();
+        tracker.incrementOperations("swaps", 3);
+        tracker.incrementOperations("comparisons", 2);
+
+        assertEquals(3L, tracker.getMetric("swaps"), "testCustomMetricKeys - custom");
+        assertEquals(2L, tracker.getAllMetrics().get("comparisons"), "testCustomMetricKeys - builtin");
+        assertEquals(4, tracker.getAllMetrics().size(), "testCustomMetricKeys - size");
+    }
+
+    private static void testStreamingVoteChunks() {
+        int[] nums = {1, 9, 9, 2, 9, 3, 9, 9, 4};
+        BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+        vote.accept(nums, 0, 4);
+        vote.accept(nums[4]);
+        vote.accept(nums, 5, 4);
+
+        BoyerMooreMajorityVote.Verifier verifier = vote.verifier();
+        verifier.accept(nums, 0, 2);
+        verifier.accept(nums, 2, 7);
+        BoyerMooreMajorityVote.MajorityResult result = verifier.result();
+
+        assertEquals(9, vote.currentCandidate(), "testStreamingVoteChunks - candidate");
+        assertTrue(result.isMajority, "testStreamingVoteChunks - isMajority");
+        assertEquals(5, result.frequency, "testStreamingVoteChunks - frequency");
+    }
+
+    private static void testStreamingVerifierFromIntStream() {
+        BoyerMooreMajorityVote.StreamingVote vote = new BoyerMooreMajorityVote.StreamingVote();
+        java.util.stream.IntStream.of(1, 1, 2, 2).forEach(vote::accept);
+
+        BoyerMooreMajorityVote.Verifier verifier = vote.verifier();
+        verifier.accept(java.util.stream.IntStream.of(1, 1, 2, 2));
+
+        assertFalse(verifier.result().isMajority, "testStreamingVerifierFromIntStream");
+    }
+
+    private static void testMappedFileMajority() {
+        try {
+            java.nio.file.Path file = java.nio.file.Files.createTempFile("majority", ".bin");
+            java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(7 * Integer.BYTES)
+                    .order(java.nio.ByteOrder.BIG_ENDIAN);
+            for (int value : new int[]{-5, 8, -5, -5, 3, -5, 1}) {
+                buffer.putInt(value);
+            }
+            java.nio.file.Files.write(file, buffer.array());
+
+            BoyerMooreMajorityVote.MajorityResult result =
+                    MappedFileMajority.findMajority(file, java.nio.ByteOrder.BIG_ENDIAN).result();
+            java.nio.file.Files.delete(file);
+
+            assertEquals(-5, result.candidate, "testMappedFileMajority - candidate");
+            assertEquals(4, result.frequency, "testMappedFileMajority - frequency");
+            assertTrue(result.isMajority, "testMappedFileMajority - isMajority");
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testMappedFileMajority - " + e.getMessage());
+        }
+    }
+
+    private static void testHeavyHittersAboveThird() {
+        MisraGriesHeavyHitters mg = new MisraGriesHeavyHitters(3);
+        int[] nums = {1, 2, 3, 1, 2, 1, 2, 1, 2, 4};
+        MisraGriesHeavyHitters.HeavyHittersResult result = mg.findHeavyHitters(nums);
+
+        int[] sorted = result.elements.clone();
+        java.util.Arrays.sort(sorted);
+        assertEquals("[1, 2]", java.util.Arrays.toString(sorted), "testHeavyHittersAboveThird - elements");
+        assertEquals(4L, result.frequencies[0], "testHeavyHittersAboveThird - frequency");
+    }
+
+    private static void testHeavyHittersNone() {
+        MisraGriesHeavyHitters mg = new MisraGriesHeavyHitters(10);
+        int[] nums = new int[1000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i % 20;
+        }
+
+        assertEquals(0, mg.findHeavyHitters(nums).elements.length, "testHeavyHittersNone");
+    }
+
+    private static void testSlidingWindowMatchesRescan() {
+        int windowSize = 9;
+        SlidingWindowMajority sliding = new SlidingWindowMajority(windowSize);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        java.util.Random random = new java.util.Random(3);
+        int[] stream = new int[2000];
+        int mismatches = 0;
+
+        for (int i = 0; i < stream.length; i++) {
+            stream[i] = random.nextInt(3) == 0 ? random.nextInt(6) : 1;
+            sliding.push(stream[i]);
+
+            int from = Math.max(0, i - windowSize + 1);
+            int[] copy = java.util.Arrays.copyOfRange(stream, from, i + 1);
+            if (bm.findMajorityElement(copy) != sliding.majority()) {
+                mismatches++;
+            }
+        }
+
+        assertEquals(0, mismatches, "testSlidingWindowMatchesRescan");
+        assertEquals(windowSize, sliding.majorityDetailed().totalElements, "testSlidingWindowMatchesRescan - size");
+    }
+
+    private static void testConcurrentAccumulatorStress() {
+        int threads = 8;
+        int perThread = 200_000;
+        int[] nums = new int[threads * perThread];
+        java.util.Random random = new java.util.Random(5);
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextInt(100) < 52 ? 77 : random.nextInt(1000);
+        }
+
+        ConcurrentMajorityAccumulator accumulator = new ConcurrentMajorityAccumulator();
+        runOnThreads(threads, t -> {
+            int from = t * perThread;
+            for (int i = from; i < from + perThread / 2; i++) {
+                accumulator.accept(nums[i]);
+            }
+            for (int i = from + perThread / 2; i < from + perThread; i += 1000) {
+                accumulator.accept(nums, i, 1000);
+            }
+            accumulator.currentCandidate();
+        });
+
+        ConcurrentMajorityAccumulator.ConcurrentVerifier verifier = accumulator.verifier();
+        runOnThreads(threads, t -> verifier.accept(nums, t * perThread, perThread));
+        BoyerMooreMajorityVote.MajorityResult expected = new BoyerMooreMajorityVote().findMajorityElementDetailed(nums);
+        BoyerMooreMajorityVote.MajorityResult actual = verifier.result();
+
+        assertEquals(77, actual.candidate, "testConcurrentAccumulatorStress - candidate");
+        assertEquals(expected.frequency, actual.frequency, "testConcurrentAccumulatorStress - frequency");
+        assertEquals((long) nums.length, accumulator.getSeen(), "testConcurrentAccumulatorStress - seen");
+    }
+
+    private static void testTrackerConcurrentUpdates() {
+        PerformanceTracker tracker = new PerformanceTracker();
+        runOnThreads(4, t -> {
+            for (int i = 0; i < 100_000; i++) {
+                tracker.incrementComparisons(1);
+                tracker.incrementOperations("custom", 1);
+            }
+        });
+
+        assertEquals(400_000L, tracker.getMetric("comparisons"), "testTrackerConcurrentUpdates - comparisons");
+        assertEquals(400_000L, tracker.getMetric("custom"), "testTrackerConcurrentUpdates - custom");
+    }
+
+    private static void runOnThreads(int threads, java.util.function.IntConsumer task) {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> task.accept(id));
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static void testLongMajority() {
+        TypedMajorityVote vote = new TypedMajorityVote();
+        long big = 1L << 40;
+        long[] nums = {big, 1, big, big + 1, big};
+
+        assertEquals(big, vote.findMajorityElement(nums), "testLongMajority");
+        assertEquals(Long.MIN_VALUE, vote.findMajorityElement(new long[]{big, big + 1}), "testLongMajority - none");
+    }
+
+    private static void testByteAndShortMajority() {
+        TypedMajorityVote vote = new TypedMajorityVote();
+        byte[] bytes = {-3, -3, 4, -3};
+        short[] shorts = new short[TypedMajorityVote.SMALL_RANGE_COUNTING_THRESHOLD + 1];
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = (short) (i % 3 == 0 ? i : -1234);
+        }
+
+        assertEquals(-3, vote.findMajorityElement(bytes), "testByteAndShortMajority - byte");
+        assertEquals(-1234, vote.findMajorityElement(shorts), "testByteAndShortMajority - short counting");
+        assertEquals(7, vote.findMajorityElement(new short[]{7, 1, 7}), "testByteAndShortMajority - short");
+        assertEquals((int) 'x', vote.findMajorityElement("xyxx".toCharArray()), "testByteAndShortMajority - char");
+    }
+
+    private static void testGenericMajorityWithEquality() {
+        String[] words = {"Vote", "vote", "other", "VOTE"};
+        TypedMajorityVote.ObjectMajorityResult<String> result =
+                TypedMajorityVote.findMajorityElementDetailed(words, String::equalsIgnoreCase);
+
+        assertTrue(result.isMajority, "testGenericMajorityWithEquality - isMajority");
+        assertEquals(3L, result.frequency, "testGenericMajorityWithEquality - frequency");
+        assertFalse(TypedMajorityVote.findMajorityElementDetailed(words).isMajority,
+                "testGenericMajorityWithEquality - default equals");
+    }
+
+    private static void testRangeMajorityMatchesRescan() {
+        java.util.Random random = new java.util.Random(9);
+        int[] nums = new int[1001];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextBoolean() ? -7 : random.nextInt(5);
+        }
+
+        RangeMajorityIndex index = new RangeMajorityIndex(nums);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int mismatches = 0;
+        for (int q = 0; q < 2000; q++) {
+            int left = random.nextInt(nums.length);
+            int right = left + random.nextInt(nums.length - left);
+            int[] copy = java.util.Arrays.copyOfRange(nums, left, right + 1);
+            if (bm.findMajorityElement(copy) != index.majority(left, right)) {
+                mismatches++;
+            }
+        }
+
+        assertEquals(0, mismatches, "testRangeMajorityMatchesRescan");
+        assertEquals(1, index.majorityDetailed(5, 5).frequency, "testRangeMajorityMatchesRescan - single");
+    }
+
+    private static void testDynamicMajorityPointUpdates() {
+        java.util.Random random = new java.util.Random(13);
+        int[] nums = new int[301];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextInt(3);
+        }
+
+        DynamicMajority dynamic = new DynamicMajority(nums);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int mismatches = 0;
+        for (int update = 0; update < 3000; update++) {
+            int index = random.nextInt(nums.length);
+            nums[index] = random.nextInt(4) == 0 ? random.nextInt(1000) : 2;
+            dynamic.set(index, nums[index]);
+            if (bm.findMajorityElement(nums) != dynamic.majority()) {
+                mismatches++;
+            }
+        }
+
+        assertEquals(0, mismatches, "testDynamicMajorityPointUpdates");
+        assertEquals(bm.findMajorityElementDetailed(nums).frequency, dynamic.majorityDetailed().frequency,
+                "testDynamicMajorityPointUpdates - frequency");
+    }
+
+    private static void testBatchMatchesPerCall() {
+        java.util.Random random = new java.util.Random(17);
+        int[][] arrays = new int[500][];
+        for (int i = 0; i < arrays.length; i++) {
+            int length = i == 250 ? BoyerMooreMajorityVote.PARALLEL_THRESHOLD * 2 : random.nextInt(200);
+            arrays[i] = new int[length];
+            for (int j = 0; j < length; j++) {
+                arrays[i][j] = random.nextBoolean() ? 1 : random.nextInt(3);
+            }
+        }
+        arrays[7] = null;
+
+        BoyerMooreMajorityVote.MajorityResult[] results = new BatchMajorityVote().findMajorityElements(arrays);
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int mismatches = 0;
+        for (int i = 0; i < arrays.length; i++) {
+            BoyerMooreMajorityVote.MajorityResult expected = bm.findMajorityElementDetailed(arrays[i]);
+            if (expected.isMajority != results[i].isMajority || expected.frequency != results[i].frequency) {
+                mismatches++;
+            }
+        }
+
+        assertEquals(0, mismatches, "testBatchMatchesPerCall");
+    }
+
+    private static void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+        LatencyHistogram other = new LatencyHistogram();
+        other.record(5_000_000);
+        histogram.merge(other);
+
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(Math.abs(p50 - 500_000) <= 500_000 / 25, "testLatencyHistogramPercentiles - p50");
+        assertTrue(Math.abs(p99 - 990_000) <= 990_000 / 25, "testLatencyHistogramPercentiles - p99");
+        assertEquals(5_000_000L, histogram.getMax(), "testLatencyHistogramPercentiles - max");
+        assertEquals(1001L, histogram.getCount(), "testLatencyHistogramPercentiles - count");
+    }
+
+    private static void testTrackerRecordsEveryCall() {
+        BoyerMooreMajorityVote bmWithMetrics = new BoyerMooreMajorityVote(true);
+        int[] nums = {1, 2, 1};
+        for (int i = 0; i < 5; i++) {
+            bmWithMetrics.findMajorityElement(nums);
+            bmWithMetrics.resetMetrics();
+        }
+
+        PerformanceTracker metrics = bmWithMetrics.getPerformanceTracker();
+        assertEquals(5L, metrics.getLatencyHistogram().getCount(), "testTrackerRecordsEveryCall");
+        assertEquals(9, metrics.getMetricsCSV().split(",").length, "testTrackerRecordsEveryCall - csv columns");
+    }
+
+    private static void testGeneratorPlantsExactMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int size = DatasetGenerator.CHUNK_SIZE + 11;
+        int failures = 0;
+
+        for (DatasetGenerator.Distribution distribution : new DatasetGenerator.Distribution[]{
+                DatasetGenerator.Distribution.ADVERSARIAL,
+                DatasetGenerator.Distribution.ALTERNATING,
+                DatasetGenerator.Distribution.SORTED}) {
+            for (boolean hasMajority : new boolean[]{true, false}) {
+                DatasetGenerator generator = new DatasetGenerator(distribution, size, 1, 50, hasMajority);
+                BoyerMooreMajorityVote.MajorityResult result = bm.findMajorityElementDetailed(generator.toArray());
+                if (result.isMajority != hasMajority) {
+                    failures++;
+                }
+            }
+        }
+
+        assertEquals(0, failures, "testGeneratorPlantsExactMajority");
+    }
+
+    private static void testGeneratorChunksAreDeterministic() {
+        DatasetGenerator generator = new DatasetGenerator(DatasetGenerator.Distribution.ZIPF,
+                3L * DatasetGenerator.CHUNK_SIZE, 99, 1000, true);
+        int[] first = new int[DatasetGenerator.CHUNK_SIZE];
+        int[] second = new int[DatasetGenerator.CHUNK_SIZE];
+        generator.generateChunk(2, first);
+        generator.generateChunk(1, second);
+        generator.generateChunk(2, second);
+
+        assertTrue(java.util.Arrays.equals(first, second), "testGeneratorChunksAreDeterministic");
+        assertEquals(first[0] < 1000, true, "testGeneratorChunksAreDeterministic - range");
+    }
+
+    private static void testSummariesRoundTripAndMerge() {
+        try {
+            int[] nums = {4, 1, 4, 4, 2, 4, 3, 4, 4, 5};
+            MajoritySummary left = MajoritySummary.fromBytes(MajoritySummary.of(nums, 0, 5).toBytes());
+            MajoritySummary right = MajoritySummary.fromBytes(MajoritySummary.of(nums, 5, 5).toBytes());
+            MajoritySummary merged = MajoritySummary.merge(left, right);
+
+            MisraGriesHeavyHitters first = new MisraGriesHeavyHitters(3);
+            MisraGriesHeavyHitters second = new MisraGriesHeavyHitters(3);
+            first.accept(nums, 0, 5);
+            second.accept(nums, 5, 5);
+            HeavyHittersSummary heavy = HeavyHittersSummary.merge(
+                    HeavyHittersSummary.fromBytes(HeavyHittersSummary.of(first).toBytes()),
+                    HeavyHittersSummary.of(second));
+
+            assertEquals(21, left.toBytes().length, "testSummariesRoundTripAndMerge - size");
+            assertEquals(4, merged.candidate, "testSummariesRoundTripAndMerge - candidate");
+            assertEquals(10L, merged.total, "testSummariesRoundTripAndMerge - total");
+            assertTrue(heavy.keys.length <= 2 && java.util.Arrays.stream(heavy.keys).anyMatch(key -> key == 4),
+                    "testSummariesRoundTripAndMerge - heavy hitters");
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testSummariesRoundTripAndMerge - " + e.getMessage());
+        }
+    }
+
+    private static void testShardedVoteOverPipes() {
+        int shards = 3;
+        java.util.Random random = new java.util.Random(21);
+        int[] nums = new int[30_000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextInt(10) < 6 ? 8 : random.nextInt(50);
+        }
+
+        try {
+            java.util.List<java.io.DataInputStream> ins = new java.util.ArrayList<>();
+            java.util.List<java.io.DataOutputStream> outs = new java.util.ArrayList<>();
+            Thread[] workers = new Thread[shards];
+            for (int t = 0; t < shards; t++) {
+                java.io.PipedOutputStream toWorker = new java.io.PipedOutputStream();
+                java.io.PipedInputStream workerIn = new java.io.PipedInputStream(toWorker, 1 << 16);
+                java.io.PipedOutputStream workerOut = new java.io.PipedOutputStream();
+                ins.add(new java.io.DataInputStream(new java.io.PipedInputStream(workerOut, 1 << 16)));
+                outs.add(new java.io.DataOutputStream(toWorker));
+
+                int from = t * nums.length / shards;
+                int to = (t + 1) * nums.length / shards;
+                workers[t] = new Thread(() -> {
+                    try {
+                        ShardedMajority.serve(sink -> sink.accept(nums, from, to - from),
+                                new java.io.DataInputStream(workerIn), new java.io.DataOutputStream(workerOut));
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException(e);
+                    }
+                });
+                workers[t].start();
+            }
+
+            ShardedMajority.Outcome outcome = ShardedMajority.coordinate(4, ins, outs);
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            BoyerMooreMajorityVote.MajorityResult expected = new BoyerMooreMajorityVote().findMajorityElementDetailed(nums);
+            assertEquals(8, outcome.majority.candidate, "testShardedVoteOverPipes - candidate");
+            assertEquals((long) expected.frequency, outcome.majority.frequency, "testShardedVoteOverPipes - frequency");
+            assertEquals(1, outcome.heavyHitters.elements.length, "testShardedVoteOverPipes - heavy hitters");
+        } catch (java.io.IOException | InterruptedException e) {
+            assertTrue(false, "testShardedVoteOverPipes - " + e);
+        }
+    }
+
+    private static void testApproximateClearMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = new int[1_000_000];
+        java.util.Random random = new java.util.Random(23);
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = random.nextInt(10) < 8 ? 6 : random.nextInt(100);
+        }
+
+        BoyerMooreMajorityVote.ApproximateMajorityResult result = bm.findMajorityElementApproximate(nums, 0.999);
+        assertTrue(result.isMajority, "testApproximateClearMajority - isMajority");
+        assertEquals(6, result.candidate, "testApproximateClearMajority - candidate");
+        assertFalse(result.exact, "testApproximateClearMajority - sampled");
+        assertTrue(result.elementsTouched < nums.length / 10, "testApproximateClearMajority - touched");
+    }
+
+    private static void testApproximateNoMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = new int[1_000_000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i % 5;
+        }
+
+        BoyerMooreMajorityVote.ApproximateMajorityResult result = bm.findMajorityElementApproximate(nums, 0.999);
+        assertFalse(result.isMajority, "testApproximateNoMajority - isMajority");
+        assertFalse(result.exact, "testApproximateNoMajority - sampled");
+    }
+
+    private static void testApproximateInconclusiveFallsBack() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = new int[1_000_000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i % 2 == 0 || i == 1 ? 3 : 4;
+        }
+
+        BoyerMooreMajorityVote.ApproximateMajorityResult result = bm.findMajorityElementApproximate(nums, 0.999);
+        assertTrue(result.exact, "testApproximateInconclusiveFallsBack - exact");
+        assertTrue(result.isMajority, "testApproximateInconclusiveFallsBack - isMajority");
+        assertEquals(500_001, result.frequency, "testApproximateInconclusiveFallsBack - frequency");
+    }
+
+    private static void testIntBufferMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        java.nio.IntBuffer direct = java.nio.ByteBuffer.allocateDirect(8 * Integer.BYTES).asIntBuffer();
+        direct.put(new int[]{9, 9, 2, 2, 1, 2, 2, 9});
+        direct.position(2);
+
+        assertEquals(2, bm.findMajorityElementInBuffer(direct), "testIntBufferMajority - direct");
+        assertEquals(2, direct.position(), "testIntBufferMajority - position unchanged");
+        assertEquals(4, bm.findMajorityElementDetailedInBuffer(direct).frequency, "testIntBufferMajority - frequency");
+        assertEquals(Integer.MIN_VALUE, bm.findMajorityElementInBuffer(java.nio.IntBuffer.wrap(new int[]{1, 2})),
+                "testIntBufferMajority - heap no majority");
+    }
+
+    private static void testByteBufferMajority() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        java.nio.ByteBuffer bytes = java.nio.ByteBuffer.allocate(5 * Integer.BYTES)
+                .order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        for (int value : new int[]{70000, 5, 70000, 70000, 6}) {
+            bytes.putInt(value);
+        }
+        bytes.flip();
+
+        BoyerMooreMajorityVote.MajorityResult result =
+                bm.findMajorityElementDetailedInBuffer(bytes, java.nio.ByteOrder.LITTLE_ENDIAN);
+        assertEquals(70000, result.candidate, "testByteBufferMajority - candidate");
+        assertTrue(result.isMajority, "testByteBufferMajority - isMajority");
+        assertEquals(java.nio.ByteOrder.LITTLE_ENDIAN, bytes.order(), "testByteBufferMajority - order unchanged");
+    }
+
+    private static void testTextParserDelimitersAndSigns() {
+        String text = "12,-7\n+3 \r\n-2147483648\t2147483647,,0";
+        java.util.List<Integer> parsed = new java.util.ArrayList<>();
+        try {
+            new IntTextParser().parse(new java.io.ByteArrayInputStream(text.getBytes()), (values, off, len) -> {
+                for (int i = off; i < off + len; i++) {
+                    parsed.add(values[i]);
+                }
+            });
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testTextParserDelimitersAndSigns - " + e.getMessage());
+        }
+
+        assertEquals("[12, -7, 3, -2147483648, 2147483647, 0]", parsed.toString(), "testTextParserDelimitersAndSigns");
+    }
+
+    private static void testTextParserAcrossBufferBoundaries() {
+        StringBuilder text = new StringBuilder();
+        int[] expected = new int[40_000];
+        java.util.Random random = new java.util.Random(29);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = random.nextInt(10) < 6 ? -123456 : random.nextInt();
+            text.append(expected[i]).append(i % 3 == 0 ? "\n" : ",");
+        }
+
+        try {
+            java.nio.file.Path file = java.nio.file.Files.createTempFile("majority", ".txt");
+            java.nio.file.Files.writeString(file, text);
+            BoyerMooreMajorityVote.MajorityResult result = new IntTextParser().vote(file).result();
+            java.nio.file.Files.delete(file);
+
+            BoyerMooreMajorityVote.MajorityResult direct = new BoyerMooreMajorityVote().findMajorityElementDetailed(expected);
+            assertEquals(direct.candidate, result.candidate, "testTextParserAcrossBufferBoundaries - candidate");
+            assertEquals(direct.frequency, result.frequency, "testTextParserAcrossBufferBoundaries - frequency");
+            assertEquals(expected.length, result.totalElements, "testTextParserAcrossBufferBoundaries - total");
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testTextParserAcrossBufferBoundaries - " + e.getMessage());
+        }
+    }
+
+    private static void testAdaptiveSelectsByShape() {
+        AdaptiveMajorityVote adaptive = new AdaptiveMajorityVote();
+        int[] sortedNums = new int[5000];
+        int[] smallRange = new int[5000];
+        int[] wideRange = new int[5000];
+        java.util.Random random = new java.util.Random(31);
+        for (int i = 0; i < sortedNums.length; i++) {
+            sortedNums[i] = i < 1000 ? i : (i < 3600 ? 1000 : i);
+            smallRange[i] = random.nextInt(10) < 6 ? 3 : random.nextInt(50);
+            wideRange[i] = random.nextInt();
+        }
+
+        assertEquals(1000, adaptive.findMajorityElement(sortedNums), "testAdaptiveSelectsByShape - sorted result");
+        assertEquals("sorted", adaptive.getLastStrategy().name(), "testAdaptiveSelectsByShape - sorted");
+        assertEquals(3, adaptive.findMajorityElement(smallRange), "testAdaptiveSelectsByShape - counting result");
+        assertEquals("counting", adaptive.getLastStrategy().name(), "testAdaptiveSelectsByShape - counting");
+        adaptive.findMajorityElement(wideRange);
+        assertEquals("sequential", adaptive.getLastStrategy().name(), "testAdaptiveSelectsByShape - sequential");
+    }
+
+    private static void testAdaptiveMatchesSequential() {
+        AdaptiveMajorityVote adaptive = new AdaptiveMajorityVote(new AdaptiveMajorityVote.Profile(4096, 1 << 10, 16));
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        java.util.Random random = new java.util.Random(37);
+        int mismatches = 0;
+
+        for (int trial = 0; trial < 200; trial++) {
+            int[] nums = new int[random.nextInt(10_000)];
+            int range = random.nextBoolean() ? 5 : 100_000;
+            for (int i = 0; i < nums.length; i++) {
+                nums[i] = random.nextInt(3) == 0 ? 42 : random.nextInt(range) - range / 2;
+            }
+            if (trial % 3 == 0) {
+                java.util.Arrays.sort(nums);
+                if (nums.length > 10) {
+                    nums[nums.length / 3] = Integer.MIN_VALUE;
+                }
+            }
+
+            BoyerMooreMajorityVote.MajorityResult expected = bm.findMajorityElementDetailed(nums);
+            BoyerMooreMajorityVote.MajorityResult actual = adaptive.findMajorityElementDetailed(nums);
+            if (expected.isMajority != actual.isMajority
+                    || (expected.isMajority && expected.candidate != actual.candidate)) {
+                mismatches++;
+            }
+        }
+
+        assertEquals(0, mismatches, "testAdaptiveMatchesSequential");
+    }
+
+    private static void testTrackerAllocationMetrics() {
+        if (!PerformanceTracker.isAllocationTrackingSupported()) {
+            System.out.println("SKIP: testTrackerAllocationMetrics - thread allocation counter unavailable");
+            return;
+        }
+        PerformanceTracker tracker = new PerformanceTracker();
+        assertFalse(tracker.getAllMetrics().containsKey("allocatedBytes"), "testTrackerAllocationMetrics - off by default");
+
+        tracker.setAllocationTracking(true);
+        tracker.startTimer();
+        long[] garbage = new long[1 << 12];
+        tracker.stopTimer();
+        assertTrue(garbage.length > 0 && tracker.getMetric("allocatedBytes") >= 8L * garbage.length,
+                "testTrackerAllocationMetrics - allocation counted");
+        assertTrue(tracker.getAllMetrics().containsKey("gcCount"), "testTrackerAllocationMetrics - gc exposed");
+
+        tracker.reset();
+        assertEquals(0, (int) tracker.getMetric("allocatedBytes"), "testTrackerAllocationMetrics - reset");
+    }
+
+    private static void testHotPathDoesNotAllocate() {
+        if (!PerformanceTracker.isAllocationTrackingSupported()) {
+            System.out.println("SKIP: testHotPathDoesNotAllocate - thread allocation counter unavailable");
+            return;
+        }
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = new int[1000];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i % 3 == 0 ? i : 7;
+        }
+
+        // Warm up until the call is compiled so interpreter frames do not count.
+        int sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += bm.findMajorityElement(nums);
+        }
+
+        long before = PerformanceTracker.currentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000; i++) {
+            sink += bm.findMajorityElement(nums);
+        }
+        long allocated = PerformanceTracker.currentThreadAllocatedBytes() - before;
+
+        assertEquals(7 * 21_000, sink, "testHotPathDoesNotAllocate - result");
+        assertEquals(0, (int) allocated, "testHotPathDoesNotAllocate - bytes allocated");
+    }
+
+    private static void testPhaseEventsRecorded() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+        int[] nums = {4, 4, 1, 4, 2, 4, 4, 3};
+
+        try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+            recording.enable(MajorityVoteEvents.CandidateEvent.class).withThreshold(java.time.Duration.ZERO);
+            recording.enable(MajorityVoteEvents.VerifyEvent.class).withThreshold(java.time.Duration.ZERO);
+            recording.enable(MajorityVoteEvents.FrequencyEvent.class).withThreshold(java.time.Duration.ZERO);
+            recording.start();
+            bm.findMajorityElement(nums);
+            bm.findMajorityElementDetailed(nums);
+            recording.stop();
+
+            java.nio.file.Path dump = java.nio.file.Files.createTempFile("majority-test", ".jfr");
+            try {
+                recording.dump(dump);
+                int candidates = 0;
+                int verifies = 0;
+                int frequencies = 0;
+                for (jdk.jfr.consumer.RecordedEvent event : jdk.jfr.consumer.RecordingFile.readAllEvents(dump)) {
+                    switch (event.getEventType().getName()) {
+                        case "majority.FindCandidate":
+                            candidates++;
+                            assertEquals(4, event.getInt("candidate"), "testPhaseEventsRecorded - candidate");
+                            break;
+                        case "majority.VerifyCandidate":
+                            verifies++;
+                            assertTrue(event.getBoolean("majority"), "testPhaseEventsRecorded - majority");
+                            assertEquals(8, event.getInt("stoppedAt"), "testPhaseEventsRecorded - stopped at");
+                            break;
+                        case "majority.CountFrequency":
+                            frequencies++;
+                            assertEquals(5, event.getInt("frequency"), "testPhaseEventsRecorded - frequency");
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                assertEquals(2, candidates, "testPhaseEventsRecorded - candidate events");
+                assertEquals(1, verifies, "testPhaseEventsRecorded - verify events");
+                assertEquals(1, frequencies, "testPhaseEventsRecorded - frequency events");
+            } finally {
+                java.nio.file.Files.deleteIfExists(dump);
+            }
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testPhaseEventsRecorded - " + e.getMessage());
+        }
+    }
+
+    private static void testGroupedMajoritySmall() {
+        GroupedMajorityVote grouped = new GroupedMajorityVote();
+        int[] keys = {7, -3, 7, 7, -3, 9, 7, -3};
+        int[] values = {1, 5, 1, 2, 6, 4, 1, 5};
+
+        GroupedMajorityVote.GroupedResult result = grouped.findMajorityElements(keys, values);
+        assertEquals(3, result.size(), "testGroupedMajoritySmall - groups");
+        assertEquals(-3, result.keyAt(0), "testGroupedMajoritySmall - sorted keys");
+
+        BoyerMooreMajorityVote.MajorityResult seven = result.get(7);
+        assertTrue(seven.isMajority && seven.candidate == 1, "testGroupedMajoritySmall - key 7");
+        assertEquals(3, seven.frequency, "testGroupedMajoritySmall - key 7 frequency");
+        assertEquals(4, seven.totalElements, "testGroupedMajoritySmall - key 7 total");
+        assertTrue(result.get(-3).isMajority && result.get(-3).candidate == 5, "testGroupedMajoritySmall - key -3");
+        assertTrue(result.get(9).isMajority, "testGroupedMajoritySmall - single pair");
+        assertTrue(result.get(42) == null, "testGroupedMajoritySmall - missing key");
+
+        assertEquals(0, grouped.findMajorityElements(new int[0], new int[0]).size(), "testGroupedMajoritySmall - empty");
+        try {
+            grouped.findMajorityElements(new int[2], new int[3]);
+            assertTrue(false, "testGroupedMajoritySmall - length mismatch should throw");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(true, "testGroupedMajoritySmall - length mismatch");
+        }
+    }
+
+    private static void testGroupedMajorityPartitioned() {
+        java.util.Random random = new java.util.Random(41);
+        int n = GroupedMajorityVote.SEQUENTIAL_THRESHOLD * 5;
+        int[] keys = new int[n];
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt(500) - 250;
+            values[i] = keys[i] % 3 == 0 && random.nextInt(3) > 0 ? keys[i] * 10 : random.nextInt(4);
+        }
+
+        java.util.Map<Integer, java.util.List<Integer>> split = new java.util.HashMap<>();
+        for (int i = 0; i < n; i++) {
+            split.computeIfAbsent(keys[i], k -> new java.util.ArrayList<>()).add(values[i]);
+        }
+
+        int[] keysBefore = keys.clone();
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            GroupedMajorityVote.GroupedResult result = new GroupedMajorityVote(pool).findMajorityElements(keys, values);
+            BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+            int mismatches = 0;
+            for (java.util.Map.Entry<Integer, java.util.List<Integer>> entry : split.entrySet()) {
+                BoyerMooreMajorityVote.MajorityResult expected = bm.findMajorityElementDetailed(
+                        entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+                BoyerMooreMajorityVote.MajorityResult actual = result.get(entry.getKey());
+                if (actual == null || actual.isMajority != expected.isMajority
+                        || actual.totalElements != expected.totalElements
+                        || (expected.isMajority && (actual.candidate != expected.candidate
+                        || actual.frequency != expected.frequency))) {
+                    mismatches++;
+                }
+            }
+            assertEquals(split.size(), result.size(), "testGroupedMajorityPartitioned - groups");
+            assertEquals(0, mismatches, "testGroupedMajorityPartitioned - per-key results");
+            assertTrue(java.util.Arrays.equals(keysBefore, keys), "testGroupedMajorityPartitioned - input untouched");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void testWeightedMajorityBasics() {
+        WeightedMajorityVote weighted = new WeightedMajorityVote();
+
+        // 9 holds most of the weight despite appearing only once.
+        int[] values = {1, 1, 1, 9, 2};
+        WeightedMajorityVote.LongWeightedMajorityResult result =
+                weighted.findMajorityElementDetailed(values, new long[]{1, 1, 1, 10, 2});
+        assertTrue(result.isMajority && result.candidate == 9, "testWeightedMajorityBasics - heavy single vote");
+        assertEquals(1, result.frequency, "testWeightedMajorityBasics - occurrences");
+        assertEquals(15L, result.totalWeight, "testWeightedMajorityBasics - total weight");
+        assertEquals(10.0 / 15.0, result.weightShare, "testWeightedMajorityBasics - share");
+
+        assertEquals(Integer.MIN_VALUE, weighted.findMajorityElement(values, new long[]{1, 1, 1, 3, 0}),
+                "testWeightedMajorityBasics - exactly half is not a majority");
+        assertEquals(1, weighted.findMajorityElement(values, new double[]{0.5, 0.25, 0.5, 0.75, 0.1}),
+                "testWeightedMajorityBasics - double weights");
+        assertEquals(Integer.MIN_VALUE, weighted.findMajorityElement(new int[0], new long[0]),
+                "testWeightedMajorityBasics - empty");
+        assertEquals(Integer.MIN_VALUE, weighted.findMajorityElement(new int[]{4, 4}, new long[]{0, 0}),
+                "testWeightedMajorityBasics - zero total weight");
+
+        try {
+            weighted.findMajorityElement(values, new long[]{1, 1, -1, 1, 1});
+            assertTrue(false, "testWeightedMajorityBasics - negative weight should throw");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(true, "testWeightedMajorityBasics - negative weight");
+        }
+        try {
+            weighted.findMajorityElement(values, new double[]{1, Double.NaN, 1, 1, 1});
+            assertTrue(false, "testWeightedMajorityBasics - NaN weight should throw");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(true, "testWeightedMajorityBasics - NaN weight");
+        }
+        try {
+            weighted.findMajorityElement(values, new long[4]);
+            assertTrue(false, "testWeightedMajorityBasics - length mismatch should throw");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(true, "testWeightedMajorityBasics - length mismatch");
+        }
+    }
+
+    private static void testWeightedMajorityParallelMatchesBruteForce() {
+        java.util.Random random = new java.util.Random(43);
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            WeightedMajorityVote weighted = new WeightedMajorityVote(pool);
+            int mismatches = 0;
+            for (int trial = 0; trial < 12; trial++) {
+                int n = trial < 6 ? random.nextInt(1000) + 1 : WeightedMajorityVote.LEAF_SIZE * 3 + random.nextInt(1000);
+                int[] values = new int[n];
+                long[] weights = new long[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = random.nextInt(4) == 0 ? 7 : random.nextInt(50);
+                    weights[i] = values[i] == 7 && trial % 2 == 0 ? 10 + random.nextInt(20) : random.nextInt(10);
+                }
+
+                java.util.Map<Integer, Long> sums = new java.util.HashMap<>();
+                long total = 0;
+                for (int i = 0; i < n; i++) {
+                    sums.merge(values[i], weights[i], Long::sum);
+                    total += weights[i];
+                }
+                int expected = Integer.MIN_VALUE;
+                for (java.util.Map.Entry<Integer, Long> entry : sums.entrySet()) {
+                    if (entry.getValue() * 2 > total) {
+                        expected = entry.getKey();
+                    }
+                }
+
+                double[] doubleWeights = new double[n];
+                for (int i = 0; i < n; i++) {
+                    doubleWeights[i] = weights[i];
+                }
+                if (weighted.findMajorityElement(values, weights) != expected
+                        || weighted.findMajorityElement(values, doubleWeights) != expected) {
+                    mismatches++;
+                }
+            }
+            assertEquals(0, mismatches, "testWeightedMajorityParallelMatchesBruteForce");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void testVoteServiceMatchesInProcess() {
+        java.net.SocketAddress loopback = new java.net.InetSocketAddress(java.net.InetAddress.getLoopbackAddress(), 0);
+        try (MajorityVoteServer server = MajorityVoteServer.start(loopback)) {
+            java.net.SocketAddress address = server.getLocalAddress();
+            BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote();
+            java.util.concurrent.atomic.AtomicInteger mismatches = new java.util.concurrent.atomic.AtomicInteger();
+            java.util.concurrent.atomic.AtomicInteger failures = new java.util.concurrent.atomic.AtomicInteger();
+
+            Thread[] clients = new Thread[4];
+            for (int t = 0; t < clients.length; t++) {
+                long seed = 50 + t;
+                clients[t] = new Thread(() -> {
+                    java.util.Random random = new java.util.Random(seed);
+                    try (MajorityVoteClient client = MajorityVoteClient.connect(address)) {
+                        for (int r = 0; r < 40; r++) {
+                            // Include empty requests and ones larger than the server's read buffer.
+                            int size = r % 10 == 0 ? 0 : r % 7 == 0 ? 50_000 : random.nextInt(200) + 1;
+                            int[] nums = new int[size];
+                            for (int i = 0; i < size; i++) {
+                                nums[i] = random.nextBoolean() ? 3 : random.nextInt(10);
+                            }
+                            BoyerMooreMajorityVote.MajorityResult expected = bm.findMajorityElementDetailed(nums);
+                            BoyerMooreMajorityVote.MajorityResult actual = client.findMajorityElementDetailed(nums);
+                            if (expected.isMajority != actual.isMajority || expected.totalElements != actual.totalElements
+                                    || (expected.isMajority && (expected.candidate != actual.candidate
+                                    || expected.frequency != actual.frequency))) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                    } catch (java.io.IOException e) {
+                        failures.incrementAndGet();
+                    }
+                });
+                clients[t].start();
+            }
+            for (Thread client : clients) {
+                client.join();
+            }
+
+            assertEquals(0, failures.get(), "testVoteServiceMatchesInProcess - client errors");
+            assertEquals(0, mismatches.get(), "testVoteServiceMatchesInProcess - results");
+            assertEquals(160, (int) server.getRequestsServed(), "testVoteServiceMatchesInProcess - requests served");
+            assertTrue(server.getBatchesRun() <= server.getRequestsServed(), "testVoteServiceMatchesInProcess - batches");
+        } catch (java.io.IOException | InterruptedException e) {
+            assertTrue(false, "testVoteServiceMatchesInProcess - " + e);
+        }
+    }
+
+    private static void testVoteServiceUnixSocketAndBadFrame() {
+        try {
+            java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("majority-sock");
+            java.net.SocketAddress address = java.net.UnixDomainSocketAddress.of(dir.resolve("vote.sock"));
+            try (MajorityVoteServer server = MajorityVoteServer.start(address)) {
+                try (MajorityVoteClient client = MajorityVoteClient.connect(address)) {
+                    assertEquals(5, client.findMajorityElement(new int[]{5, 1, 5, 5, 2}), "testVoteServiceUnixSocketAndBadFrame - unix socket");
+                    assertEquals(Integer.MIN_VALUE, client.findMajorityElement(new int[]{1, 2}), "testVoteServiceUnixSocketAndBadFrame - no majority");
+                }
+
+                // A negative length is a protocol error; the server drops the connection.
+                try (java.nio.channels.SocketChannel raw = java.nio.channels.SocketChannel.open(address)) {
+                    java.nio.ByteBuffer frame = java.nio.ByteBuffer.allocate(8).putInt(1).putInt(-1);
+                    frame.flip();
+                    raw.write(frame);
+                    assertEquals(-1, raw.read(java.nio.ByteBuffer.allocate(1)), "testVoteServiceUnixSocketAndBadFrame - bad frame closes");
+                }
+
+                try (MajorityVoteClient client = MajorityVoteClient.connect(address)) {
+                    assertEquals(9, client.findMajorityElement(new int[]{9}), "testVoteServiceUnixSocketAndBadFrame - still serving");
+                }
+            }
+            assertFalse(java.nio.file.Files.exists(dir.resolve("vote.sock")), "testVoteServiceUnixSocketAndBadFrame - socket file removed");
+            java.nio.file.Files.deleteIfExists(dir);
+        } catch (java.io.IOException | UnsupportedOperationException e) {
+            System.out.println("SKIP: testVoteServiceUnixSocketAndBadFrame - " + e);
+        }
+    }
+
+    private static void testVoteServiceSurvivesHostileClients() {
+        java.net.SocketAddress loopback = new java.net.InetSocketAddress(java.net.InetAddress.getLoopbackAddress(), 0);
+        try (MajorityVoteServer server = MajorityVoteServer.start(loopback)) {
+            java.net.SocketAddress address = server.getLocalAddress();
+
+            // Headers announcing the largest allowed request but sending no data
+            // must not reserve memory up front.
+            java.nio.channels.SocketChannel[] idle = new java.nio.channels.SocketChannel[4];
+            for (int i = 0; i < idle.length; i++) {
+                idle[i] = java.nio.channels.SocketChannel.open(address);
+                java.nio.ByteBuffer header = java.nio.ByteBuffer.allocate(8).putInt(i).putInt(MajorityVoteServer.MAX_REQUEST_INTS);
+                header.flip();
+                idle[i].write(header);
+            }
+
+            try (java.nio.channels.SocketChannel raw = java.nio.channels.SocketChannel.open(address)) {
+                java.nio.ByteBuffer header = java.nio.ByteBuffer.allocate(8).putInt(1).putInt(MajorityVoteServer.MAX_REQUEST_INTS + 1);
+                header.flip();
+                raw.write(header);
+                assertEquals(-1, raw.read(java.nio.ByteBuffer.allocate(1)), "testVoteServiceSurvivesHostileClients - oversized request closes");
+            }
+
+            try (MajorityVoteClient client = MajorityVoteClient.connect(address)) {
+                assertEquals(2, client.findMajorityElement(new int[]{2, 2, 1}), "testVoteServiceSurvivesHostileClients - still serving");
+            }
+            for (java.nio.channels.SocketChannel channel : idle) {
+                channel.close();
+            }
+        } catch (java.io.IOException e) {
+            assertTrue(false, "testVoteServiceSurvivesHostileClients - " + e);
+        }
+
+        // A batch that cannot run drops the connection instead of leaving the client waiting.
+        java.util.concurrent.ForkJoinPool stopped = new java.util.concurrent.ForkJoinPool(1);
+        stopped.shutdown();
+        try (MajorityVoteServer server = MajorityVoteServer.start(loopback, stopped);
+             MajorityVoteClient client = MajorityVoteClient.connect(server.getLocalAddress())) {
+            client.findMajorityElement(new int[]{1, 1, 2});
+            assertTrue(false, "testVoteServiceSurvivesHostileClients - failed batch should close the connection");
+        } catch (java.io.IOException expected) {
+            assertTrue(true, "testVoteServiceSurvivesHostileClients - failed batch closes the connection");
+        }
+    }
+
+    private static void testFrequencyReportBeyondIntTotals() {
+        // Three shards of 1.5 billion values each: the merged total no longer fits in an int.
+        FrequencyReport shard = new FrequencyReport(new int[]{4}, new long[]{1_000_000_000L}, 1_500_000_000L);
+        FrequencyReport merged = FrequencyReport.merge(shard, shard, shard);
+        assertTrue(merged.total > Integer.MAX_VALUE, "testFrequencyReportBeyondIntTotals - total");
+
+        FrequencyReport.MajorityCount majority = merged.toMajorityCount();
+        assertTrue(majority.isMajority && majority.candidate == 4, "testFrequencyReportBeyondIntTotals - majority");
+        assertEquals(3_000_000_000L, majority.frequency, "testFrequencyReportBeyondIntTotals - frequency");
+        assertEquals(4_500_000_000L, majority.totalElements, "testFrequencyReportBeyondIntTotals - total elements");
+
+        FrequencyReport.HeavyHitterCounts heavy = merged.toHeavyHitterCounts(3);
+        assertEquals(1, heavy.elements.length, "testFrequencyReportBeyondIntTotals - heavy hitters");
+        assertEquals(4_500_000_000L, heavy.totalElements, "testFrequencyReportBeyondIntTotals - heavy total");
+    }
+
+    private static void testApproximateFallbackTimedOnce() {
+        BoyerMooreMajorityVote bm = new BoyerMooreMajorityVote(true);
+        // Exactly half the values are 1: sampling cannot decide, so the call falls back to the exact scan.
+        int[] nums = new int[4 * BoyerMooreMajorityVote.MAX_SAMPLES];
+        for (int i = 0; i < nums.length; i++) {
+            nums[i] = i % 2 == 0 ? 1 : -i;
+        }
+
+        BoyerMooreMajorityVote.ApproximateMajorityResult result = bm.findMajorityElementApproximate(nums, 0.99);
+        assertTrue(result.exact && !result.isMajority, "testApproximateFallbackTimedOnce - exact fallback");
+        assertEquals(1L, bm.getPerformanceTracker().getLatencyHistogram().getCount(),
+                "testApproximateFallbackTimedOnce - one timed call");
+        assertTrue(bm.getPerformanceTracker().getMetric("arrayAccess") > 2L * nums.length,
+                "testApproximateFallbackTimedOnce - samples and scan both counted");
+    }
+
+    private static void testBatchLargeArraysUseGivenPool() {
+        int[] large = new int[BoyerMooreMajorityVote.PARALLEL_THRESHOLD * 4];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = i % 3 == 0 ? i : 6;
+        }
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(2);
+        try {
+            BoyerMooreMajorityVote.MajorityResult[] results =
+                    new BatchMajorityVote(pool).findMajorityElements(new int[][]{large});
+            assertTrue(results[0].isMajority && results[0].candidate == 6, "testBatchLargeArraysUseGivenPool - result");
+        } finally {
+            pool.shutdown();
+        }
+
+        // A shut-down pool must reject the work; before, large arrays silently ran on the common pool.
+        try {
+            new BatchMajorityVote(pool).findMajorityElements(new int[][]{large});
+            assertTrue(false, "testBatchLargeArraysUseGivenPool - stopped pool should be used and reject");
+        } catch (java.util.concurrent.RejectedExecutionException expected) {
+            assertTrue(true, "testBatchLargeArraysUseGivenPool - given pool used");
+        }
+    }
+
+    private static void testTextParserSignRules() {
+        java.util.List<Integer> parsed = new java.util.ArrayList<>();
+        IntTextParser.IntChunkSink collect = (values, off, len) -> {
+            for (int i = off; i < off + len; i++) {
+                parsed.add(values[i]);
+            }
+        };
+
+        try {
+            new IntTextParser().parse(new java.io.ByteArrayInputStream("1,-,2, + ,-3\n-".getBytes()), collect);
+            assertEquals("[1, 2, -3]", parsed.toString(), "testTextParserSignRules - bare signs skipped");
+        } catch (java.io.IOException | NumberFormatException e) {
+            assertTrue(false, "testTextParserSignRules - bare signs: " + e);
+        }
+
+        for (String text : new String[]{"12-5", "12.5", "1e3", "0x1F", "12abc", "7,+-3", "4+", "1;2"}) {
+            try {
+                new IntTextParser().parse(new java.io.ByteArrayInputStream(text.getBytes()), collect);
+                assertTrue(false, "testTextParserSignRules - '" + text + "' should be rejected");
+            } catch (NumberFormatException expected) {
+                assertTrue(true, "testTextParserSignRules - '" + text + "' rejected");
+            } catch (java.io.IOException e) {
+                assertTrue(false, "testTextParserSignRules - " + e);
+            }
+        }
+    }
+
+    private static void testVoteServicePausesUnreadClients() {
+        java.net.SocketAddress loopback = new java.net.InetSocketAddress(java.net.InetAddress.getLoopbackAddress(), 0);
+        try (MajorityVoteServer server = MajorityVoteServer.start(loopback);
+             java.nio.channels.SocketChannel raw = java.nio.channels.SocketChannel.open(server.getLocalAddress())) {
+            // Pipeline empty requests without reading any responses back.
+            int requests = 4_000_000;
+            java.nio.ByteBuffer frames = java.nio.ByteBuffer.allocateDirect(requests * 8);
+            for (int i = 0; i < requests; i++) {
+                frames.putInt(i).putInt(0);
+            }
+            frames.flip();
+            raw.configureBlocking(false);
+            long idleSince = System.nanoTime();
+            while (frames.hasRemaining() && System.nanoTime() - idleSince < 500_000_000L) {
+                if (raw.write(frames) > 0) {
+                    idleSince = System.nanoTime();
+                } else {
+                    Thread.sleep(10);
+                }
+            }
+            assertTrue(frames.hasRemaining(), "testVoteServicePausesUnreadClients - server stops reading");
+
+            raw.configureBlocking(true);
+            java.nio.ByteBuffer responses = java.nio.ByteBuffer.allocate(MajorityVoteServer.MAX_UNANSWERED * MajorityVoteServer.RESPONSE_BYTES);
+            while (responses.hasRemaining() && raw.read(responses) > 0) {
+                // Reading the backlog lets the server resume.
+            }
+            assertFalse(responses.hasRemaining(), "testVoteServicePausesUnreadClients - backlog answered");
+
+            try (MajorityVoteClient client = MajorityVoteClient.connect(server.getLocalAddress())) {
+                assertEquals(3, client.findMajorityElement(new int[]{3, 3, 1}), "testVoteServicePausesUnreadClients - others served");
+            }
+        } catch (java.io.IOException | InterruptedException e) {
+            assertTrue(false, "testVoteServicePausesUnreadClients - " + e);
+        }
+    }
+
+    private static void testWeightedMajorityExactLongTotals() {
+        WeightedMajorityVote weighted = new WeightedMajorityVote();
+
+        // 2^53 + 1 against 2^53: a double cannot tell the two weights apart.
+        long heavy = (1L << 53) + 1;
+        WeightedMajorityVote.LongWeightedMajorityResult result =
+                weighted.findMajorityElementDetailed(new int[]{5, 6}, new long[]{heavy, 1L << 53});
+        assertTrue(result.isMajority && result.candidate == 5, "testWeightedMajorityExactLongTotals - majority by one");
+        assertEquals(heavy, result.candidateWeight, "testWeightedMajorityExactLongTotals - candidate weight");
+        assertEquals((1L << 54) + 1, result.totalWeight, "testWeightedMajorityExactLongTotals - total weight");
+
+        try {
+            weighted.findMajorityElement(new int[]{1, 2}, new long[]{Long.MAX_VALUE, 1});
+            assertTrue(false, "testWeightedMajorityExactLongTotals - overflow should throw");
+        } catch (ArithmeticException expected) {
+            assertTrue(true, "testWeightedMajorityExactLongTotals - overflow");
+        }
+    }
 }